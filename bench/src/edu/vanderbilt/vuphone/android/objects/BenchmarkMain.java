@@ -0,0 +1,29 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line (a benchmark name pattern,
+ * -f, -wi, -i, -p schedule=busy, ...), and always adds the gc profiler, so every score comes
+ * with its allocation rate (gc.alloc.rate.norm is the bytes allocated per call).
+ *
+ */
+public class BenchmarkMain {
+
+	public static void main(String [] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		if (commandLine.shouldHelp()) {
+			commandLine.showHelp();
+			return;
+		}
+		Options options = new OptionsBuilder()
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
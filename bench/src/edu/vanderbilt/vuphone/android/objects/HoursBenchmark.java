@@ -0,0 +1,100 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The hours queries the list, the map and the details screen make for every restaurant they
+ * show, asked at moments spread over the week. Each call moves on to the next snapshot, so
+ * a score is an average over open, closed and closing soon.
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HoursBenchmark {
+
+	private static final int SNAPSHOTS = 1024;
+
+	@Param({Schedules.TYPICAL, Schedules.OVERNIGHT, Schedules.ALL_DAY, Schedules.BUSY, Schedules.SPLIT})
+	public String schedule;
+
+	private RestaurantHours _hours;
+	private NowSnapshot [] _snapshots;
+	private int _next;
+
+	@Setup
+	public void setUp() {
+		_hours = Schedules.byName(schedule);
+		_snapshots = Schedules.snapshots(SNAPSHOTS, true);
+		// build the interval list and the index outside of the timed calls
+		_hours.getIndex();
+	}
+
+	private NowSnapshot next() {
+		return _snapshots[_next++ & (SNAPSHOTS - 1)];
+	}
+
+	@Benchmark
+	public boolean isOpen() {
+		return _hours.isOpen(next());
+	}
+
+	@Benchmark
+	public Range getCurrentRange() {
+		return _hours.getCurrentRange(next());
+	}
+
+	@Benchmark
+	public int minutesToOpen() {
+		return _hours.minutesToOpen(next());
+	}
+
+	@Benchmark
+	public int minutesToClose() {
+		return _hours.minutesToClose(next());
+	}
+
+	@Benchmark
+	public Time getNextOpenTime() {
+		return _hours.getNextOpenTime(next());
+	}
+
+	// only asked of restaurants that are open, as the list and the map do
+	@Benchmark
+	public Time getNextCloseTime() {
+		NowSnapshot now = next();
+		if (_hours.minutesToClose(now) < 0)
+			return null;
+		return _hours.getNextCloseTime(now);
+	}
+
+	// the ranges the details screen lists for each day of the week
+	@Benchmark
+	public void getDayRanges(Blackhole bh) {
+		for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++)
+			bh.consume(_hours.getDayRanges(day));
+	}
+
+	// building a restaurant's hours from ranges, as StaticRestaurantData does, up to the first query
+	@Benchmark
+	public boolean build() {
+		return Schedules.byName(schedule).isOpen(next());
+	}
+}
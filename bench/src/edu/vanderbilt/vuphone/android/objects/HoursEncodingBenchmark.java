@@ -0,0 +1,101 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the hours encoding stored since DB version 8 (RestaurantHours.encode()/decode())
+ * with the per day longs stored before it (flatten()/inflate()). Only schedules of up to
+ * three ranges a day are used, the most flatten() can hold. The stored sizes are printed
+ * by HoursEncodingSizes, kept out of the JMH output.
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HoursEncodingBenchmark {
+
+	@Param({Schedules.TYPICAL, Schedules.OVERNIGHT, Schedules.ALL_DAY, Schedules.BUSY})
+	public String schedule;
+
+	private RestaurantHours _hours;
+	private byte [] _encoded;
+	private long [] _flattened;
+
+	@Setup
+	public void setUp() {
+		_hours = Schedules.byName(schedule);
+		_encoded = _hours.encode();
+		_flattened = flatten(_hours);
+	}
+
+	@Benchmark
+	public byte [] encode() {
+		return _hours.encode();
+	}
+
+	@Benchmark
+	public RestaurantHours decode() {
+		return RestaurantHours.decode(_encoded);
+	}
+
+	@Benchmark
+	public long [] flattenWeek() {
+		return flatten(_hours);
+	}
+
+	// the load path used up to DB version 7
+	@Benchmark
+	public RestaurantHours inflateWeek() {
+		ArrayList<ArrayList<Range>> week = new ArrayList<ArrayList<Range>>(7);
+		for (int i = 0; i < _flattened.length; i++)
+			week.add(RestaurantHours.inflate(_flattened[i]));
+		return new RestaurantHours(week);
+	}
+
+	// the seven per day longs stored up to DB version 7
+	static long [] flatten(RestaurantHours hours) {
+		long [] days = new long[7];
+		for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++)
+			days[day - Calendar.SUNDAY] = hours.flatten(day);
+		return days;
+	}
+
+	// bytes SQLite uses for the values of seven INTEGER columns (record header not included)
+	static int sqliteSize(long [] days) {
+		int size = 0;
+		for (int i = 0; i < days.length; i++) {
+			long v = days[i];
+			if (v == 0 || v == 1)
+				continue;
+			else if (v >= -128 && v < 128)
+				size += 1;
+			else if (v >= -32768 && v < 32768)
+				size += 2;
+			else if (v >= -8388608 && v < 8388608)
+				size += 3;
+			else if (v >= Integer.MIN_VALUE && v <= Integer.MAX_VALUE)
+				size += 4;
+			else if (v >= -(1L << 47) && v < (1L << 47))
+				size += 6;
+			else size += 8;
+		}
+		return size;
+	}
+}
@@ -0,0 +1,21 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+/**
+ * Prints how many bytes each schedule of HoursEncodingBenchmark takes stored: encode() against
+ * the seven per day longs as SQLite stores them. Run on its own, the sizes do not change from
+ * one trial to the next and have no place in the benchmark output.
+ *
+ */
+public class HoursEncodingSizes {
+
+	public static void main(String [] args) {
+		String [] schedules = {Schedules.TYPICAL, Schedules.OVERNIGHT, Schedules.ALL_DAY, Schedules.BUSY};
+		for (int i = 0; i < schedules.length; i++) {
+			RestaurantHours hours = Schedules.byName(schedules[i]);
+			long [] flattened = HoursEncodingBenchmark.flatten(hours);
+			System.out.println(schedules[i] + ": encode() " + hours.encode().length + " bytes, 7 longs "
+					+ HoursEncodingBenchmark.sqliteSize(flattened) + " bytes as stored by SQLite ("
+					+ 7 * 8 + " raw)");
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import java.util.Calendar;
+import java.util.Random;
+
+/**
+ * Weekly hours used by the benchmarks: a typical dining hall modelled on StaticRestaurantData,
+ * and the shapes that are hardest on the hours code (ranges running past midnight, open all
+ * week, many ranges a day).
+ *
+ */
+final class Schedules {
+
+	// every schedule, by the name used in the benchmarks' @Param lists
+	static final String TYPICAL = "typical";
+	static final String OVERNIGHT = "overnight";
+	static final String ALL_DAY = "allDay";
+	static final String BUSY = "busy";
+	static final String SPLIT = "split";
+
+	private Schedules() {}
+
+	static RestaurantHours byName(String name) {
+		if (TYPICAL.equals(name))
+			return typical();
+		if (OVERNIGHT.equals(name))
+			return overnight();
+		if (ALL_DAY.equals(name))
+			return allDay();
+		if (BUSY.equals(name))
+			return busy();
+		if (SPLIT.equals(name))
+			return split();
+		throw new RuntimeException("Unknown schedule: " + name);
+	}
+
+	// breakfast, lunch and dinner on weekdays, brunch and dinner on weekends (like Rand)
+	static RestaurantHours typical() {
+		RestaurantHours rh = new RestaurantHours();
+		for (int day = Calendar.MONDAY; day <= Calendar.FRIDAY; day++) {
+			rh.addRange(day, new Range(Time.valueOf(7, 0), Time.valueOf(10, 30)));
+			rh.addRange(day, new Range(Time.valueOf(11, 0), Time.valueOf(14, 30)));
+			rh.addRange(day, new Range(Time.valueOf(16, 30), Time.valueOf(19, 30)));
+		}
+		rh.addRange(Calendar.SATURDAY, new Range(Time.valueOf(10, 0), Time.valueOf(14, 0)));
+		rh.addRange(Calendar.SUNDAY, new Range(Time.valueOf(10, 0), Time.valueOf(14, 0)));
+		rh.addRange(Calendar.SUNDAY, new Range(Time.valueOf(16, 30), Time.valueOf(19, 30)));
+		return rh;
+	}
+
+	// late night food, open into the small hours every night and later at weekends (like Cabana)
+	static RestaurantHours overnight() {
+		RestaurantHours rh = new RestaurantHours();
+		for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+			boolean weekend = day == Calendar.FRIDAY || day == Calendar.SATURDAY;
+			rh.addRange(day, new Range(Time.valueOf(16, 0), Time.valueOf(weekend ? 4 : 3, 0)));
+		}
+		return rh;
+	}
+
+	// open 24/7 (like Varsity Towers), there is never a next closing time
+	static RestaurantHours allDay() {
+		RestaurantHours rh = new RestaurantHours();
+		rh.addInterval(0, HoursIndex.MINUTES_PER_WEEK);
+		return rh;
+	}
+
+	// three ranges every day with odd minutes, the last one running past midnight;
+	// the most a day can hold in the flatten() format
+	static RestaurantHours busy() {
+		RestaurantHours rh = new RestaurantHours();
+		for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+			rh.addRange(day, new Range(Time.valueOf(6, 45), Time.valueOf(10, 15)));
+			rh.addRange(day, new Range(Time.valueOf(11, 5), Time.valueOf(14, 55)));
+			rh.addRange(day, new Range(Time.valueOf(16, 35), Time.valueOf(1, 50)));
+		}
+		return rh;
+	}
+
+	// five short ranges every day (a coffee cart between classes), too many to flatten()
+	static RestaurantHours split() {
+		RestaurantHours rh = new RestaurantHours();
+		for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++)
+			for (int hour = 8; hour < 18; hour += 2)
+				rh.addRange(day, new Range(Time.valueOf(hour, 0), Time.valueOf(hour + 1, 10)));
+		return rh;
+	}
+
+	/**
+	 * Returns moments spread over the whole week, in a fixed random order, so a benchmark
+	 * cycling through them hits open, closed and about to close cases alike and the branch
+	 * predictor can't learn the answer
+	 * @param count
+	 * 	number of snapshots, a power of two so callers can wrap with a mask
+	 * @param dated
+	 * 	true to give the snapshots dates (as the system clock does), false for week only ones
+	 */
+	static NowSnapshot [] snapshots(int count, boolean dated) {
+		if (Integer.bitCount(count) != 1)
+			throw new RuntimeException("snapshots(int, boolean): count must be a power of two");
+		Random random = new Random(42);
+		// a Sunday, so the dates line up with the minutes of the week
+		int sunday = NowSnapshot.dayNumber(2010, 1, 3);
+		NowSnapshot [] out = new NowSnapshot[count];
+		for (int i = 0; i < count; i++) {
+			int minute = random.nextInt(HoursIndex.MINUTES_PER_WEEK);
+			out[i] = dated ? NowSnapshot.onDate(sunday, minute) : NowSnapshot.ofMinuteOfWeek(minute);
+		}
+		return out;
+	}
+}
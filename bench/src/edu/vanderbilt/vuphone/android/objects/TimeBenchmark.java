@@ -0,0 +1,90 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time and Range, which every hours query and every row of the list goes through: looking
+ * up times, comparing them with ranges, and formatting them for display.
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeBenchmark {
+
+	private static final int COUNT = 1024;
+
+	private int [] _minutes;
+	private String [] _strings;
+	private Range [] _ranges;
+	private int _next;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		_minutes = new int[COUNT];
+		_strings = new String[COUNT];
+		_ranges = new Range[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			_minutes[i] = random.nextInt(HoursIndex.MINUTES_PER_DAY);
+			_strings[i] = String.format("%d:%02d", _minutes[i] / 60, _minutes[i] % 60);
+			// a third of the ranges run past midnight
+			Time start = Time.ofMinuteOfDay(random.nextInt(HoursIndex.MINUTES_PER_DAY));
+			int length = 30 + random.nextInt(i % 3 == 0 ? 12 * 60 : 4 * 60);
+			_ranges[i] = new Range(start, Time.ofMinuteOfDay((start.totalMinutes() + length) % HoursIndex.MINUTES_PER_DAY));
+		}
+	}
+
+	private int next() {
+		return _next++ & (COUNT - 1);
+	}
+
+	@Benchmark
+	public Time valueOfHourMinute() {
+		int m = _minutes[next()];
+		return Time.valueOf(m / 60, m % 60);
+	}
+
+	@Benchmark
+	public Time valueOfString() {
+		return Time.valueOf(_strings[next()]);
+	}
+
+	@Benchmark
+	public boolean inRange() {
+		int i = next();
+		return _ranges[i].inRange(Time.ofMinuteOfDay(_minutes[i]));
+	}
+
+	@Benchmark
+	public int minutesUntilEnd() {
+		int i = next();
+		return _ranges[i].minutesUntilEnd(Time.ofMinuteOfDay(_minutes[i]));
+	}
+
+	@Benchmark
+	public boolean overlap() {
+		int i = next();
+		return _ranges[i].overlap(_ranges[(i + 1) & (COUNT - 1)]);
+	}
+
+	@Benchmark
+	public String rangeToString() {
+		return _ranges[next()].toString(false);
+	}
+}
@@ -1,5 +1,7 @@
 package edu.vanderbilt.vuphone.android.dining;
 
+import java.util.LinkedHashSet;
+
 import android.app.AlertDialog;
 import android.app.Dialog;
 import android.app.ListActivity;
@@ -10,18 +12,21 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.provider.Settings.System;
-import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 import android.view.View.OnClickListener;
+import android.widget.AbsListView;
 import android.widget.Button;
 import android.widget.ListView;
 import android.widget.Toast;
 import edu.vanderbilt.vuphone.android.map.AllLocations;
 import edu.vanderbilt.vuphone.android.objects.RestaurantAdapter;
+import edu.vanderbilt.vuphone.android.objects.Time;
+import edu.vanderbilt.vuphone.android.objects.TransitionScheduler;
+import edu.vanderbilt.vuphone.android.storage.DbLoader;
 import edu.vanderbilt.vuphone.android.storage.Restaurant;
-import edu.vanderbilt.vuphone.android.storage.StaticRestaurantData;
+import edu.vanderbilt.vuphone.android.storage.RestaurantTable;
 
 /**
  * @author austin
@@ -30,56 +35,139 @@ import edu.vanderbilt.vuphone.android.storage.StaticRestaurantData;
 public class Main extends ListActivity {
 
 	public static Context applicationContext;
-	public static boolean display24;
 
 	// current mode and values
 	private static final int NORMAL = 0;
 	private static final int MARK_FAVS = 1;
 	private int mode;
 
+	// null until the main data is loaded
 	private RestaurantAdapter ra;
+	private boolean resumed;
+	
+	// the shipped data cannot change while the process lives, it is checked once
+	private static boolean reseeded = false;
+	
+	// how long the list has to stay still before the details of its rows are read ahead, 
+	// so a run of short flings reads only where it stops
+	private static final long PREFETCH_DELAY = 300;
+	private final Runnable prefetch = new Runnable() {
+		public void run() {
+			if (ra != null)
+				prefetchDetails();
+		}
+	};
 	
 	/** Called when the activity is first created. */
 	@Override
 	protected void onCreate(Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
 
-		// clunky mechanic with gross file dependency,
-		// but DBWrapper needs Main.mainContext for its
-		// calls to DBAdapter
+		// DbWrapper opens the database with the application context
 		if (applicationContext == null)
 			applicationContext = getApplicationContext();
-		display24 = "24".equals(System.getString(this.getContentResolver(),
+		Time.display24 = "24".equals(System.getString(this.getContentResolver(),
 				System.TIME_12_24));
 
-		//Restaurant.deleteAll();
-		if (Restaurant.getIDs().size() != StaticRestaurantData.NUM_RESTAURANTS) {
-			Log.i("Dining", "database purged: getIDs().size()="
-					+ Restaurant.getIDs().size() + ", Static data size="
-					+ StaticRestaurantData.NUM_RESTAURANTS);
-			Restaurant.deleteAll();
-			(new StaticRestaurantData()).createAllRestaurants();
-		}
-
 		initializeContentView();
 
+		// the database is read in the background, the list is filled once the main data
+		// is cached, right away if it already is, and shows what the database has while 
+		// the shipped data is checked after it
+		DbLoader.loadMainData(this, new DbLoader.Callback<Void>() {
+			public void onLoaded(Void result) {
+				showRestaurants();
+			}
+		});
+		if (!reseeded) {
+			// nothing is built unless the shipped data changed since the last launch. If 
+			// this activity goes first the check is made again by the next one
+			DbLoader.reseed(this, applicationContext, new DbLoader.Callback<Boolean>() {
+				public void onLoaded(Boolean changed) {
+					reseeded = true;
+					if (changed && ra != null) {
+						ra.setSort();
+						ra.notifyDataSetChanged();
+					}
+				}
+			});
+		}
+		getListView().setTextFilterEnabled(true);
+		// once a scroll stops, the details of the rows it stopped on are read ahead
+		getListView().setOnScrollListener(new AbsListView.OnScrollListener() {
+			public void onScrollStateChanged(AbsListView view, int scrollState) {
+				view.removeCallbacks(prefetch);
+				if (scrollState == SCROLL_STATE_IDLE)
+					view.postDelayed(prefetch, PREFETCH_DELAY);
+			}
+			public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, 
+					int totalItemCount) {}
+		});
+		// getListView().setFastScrollEnabled(true);
+		// dont know if this is appropriate
+
+	}
+	
+	private void showRestaurants() {
 		ra = new RestaurantAdapter(this, RestaurantAdapter.SORT_UNSORTED); 
 			// this does the least work because retrieveUserSettings() now sorts the list);
 		
 		retrieveUserSettings();
 
 		setListAdapter(ra);
-		// getListView().setTextFilterEnabled(true);
-		// RestaurantAdapter must implement Filterable for this to work
-		// getListView().setFastScrollEnabled(true);
-		// dont know if this is appropriate
-
+		if (resumed)
+			TransitionScheduler.get().register(ra);
+		// after the list is laid out, so the visible rows are known
+		getListView().post(prefetch);
+	}
+	
+	// reads ahead the details of the restaurants most likely to be opened next: those 
+	// on screen, then the favorites
+	private void prefetchDetails() {
+		ListView list = getListView();
+		LinkedHashSet<Long> likely = new LinkedHashSet<Long>();
+		int last = Math.min(list.getLastVisiblePosition(), ra.getCount() - 1);
+		for (int i = Math.max(list.getFirstVisiblePosition(), 0); i <= last; i++)
+			if (ra.getItemId(i) > 0) // not a partition
+				likely.add(ra.getItemId(i));
+		RestaurantTable table = Restaurant.getTable();
+		for (int i = 0; i < table.size(); i++)
+			if (table.get(i).favorite())
+				likely.add(table.getID(i));
+		long [] rowIDs = new long[likely.size()];
+		int j = 0;
+		for (Long rowID : likely)
+			rowIDs[j++] = rowID;
+		DbLoader.prefetch(rowIDs);
+	}
+	
+	@Override
+	protected void onResume() {
+		super.onResume();
+		resumed = true;
+		// redraws the list whenever a restaurant opens or closes
+		if (ra != null)
+			TransitionScheduler.get().register(ra);
 	}
 	
 	@Override
 	protected void onPause() {
 		super.onPause();
-		commitUserSettings();
+		resumed = false;
+		if (ra != null) {
+			TransitionScheduler.get().unregister(ra);
+			commitUserSettings();
+		}
+	}
+	
+	@Override
+	protected void onDestroy() {
+		super.onDestroy();
+		DbLoader.cancel(this);
+		getListView().removeCallbacks(prefetch);
+		// the database stays open while the app runs, the details page and map reuse it
+		if (isFinishing())
+			Restaurant.close();
 	}
 	
 
@@ -147,6 +235,9 @@ public class Main extends ListActivity {
 	/** Handles what happens when each menu item is clicked */
 	public boolean onOptionsItemSelected(MenuItem item) {
 		super.onOptionsItemSelected(item);
+		if (ra == null && item.getItemId() != MENU_ITEM_VIEW_MAP 
+				&& item.getItemId() != MENU_ITEM_ABOUT)
+			return true; // the list is still loading
 		switch (item.getItemId()) {
 		case MENU_ITEM_VIEW_MAP:
 			Intent toMapView = new Intent(this, AllLocations.class);
@@ -16,6 +16,7 @@ import android.widget.RelativeLayout;
 import android.widget.TabHost;
 import android.widget.TextView;
 import edu.vanderbilt.vuphone.android.map.OneLocation;
+import edu.vanderbilt.vuphone.android.storage.DbLoader;
 import edu.vanderbilt.vuphone.android.storage.Restaurant;
 
 
@@ -45,8 +46,38 @@ public class RestaurantDetails extends TabActivity implements
 		setContentView(R.layout.details);
 
 		restaurantID = getIntent().getExtras().getLong(RESTAURANT_ID);
-		restaurant = Restaurant.get(restaurantID);
 
+		// TAB SET UP
+		mTabHost = getTabHost();
+		mTabHost.addTab(mTabHost.newTabSpec("tab1").setIndicator("Details",
+				getResources().getDrawable(R.drawable.ic_tab_details_main))
+				.setContent(R.restaurantDetails.mainContent));
+		mTabHost.addTab(mTabHost.newTabSpec("tab2").setIndicator("Map",
+				getResources().getDrawable(R.drawable.ic_tab_details_map))
+				.setContent(
+						new Intent(this, OneLocation.class).putExtra(
+								OneLocation.RESTAURANT_ID, restaurantID)));
+
+		mTabHost.setOnTabChangedListener(this);
+		mTabHost.setCurrentTab(0);
+
+		// the details are read in the background, the page is filled in once they are,
+		// right away if they are cached
+		DbLoader.loadRestaurant(this, restaurantID, new DbLoader.Callback<Restaurant>() {
+			public void onLoaded(Restaurant result) {
+				restaurant = result;
+				showRestaurant();
+			}
+		});
+	}
+
+	@Override
+	protected void onDestroy() {
+		super.onDestroy();
+		DbLoader.cancel(this);
+	}
+
+	private void showRestaurant() {
 		setTitle(restaurant.getName());
 
 		// MAIN PAGE VIEWS
@@ -76,12 +107,12 @@ public class RestaurantDetails extends TabActivity implements
 					public void onClick(View v) {
 						Log.i("test", "onclick");
 						if (++mCounter[1] >= restaurant.getHours()
-								.getRangesToModify(mCounter[0]).size()
+								.getDayRanges(mCounter[0]).size()
 								|| mCounter[1] == -1) {
 							mCounter[0] = (mCounter[0] - Calendar.SUNDAY + 7 + 1)
 									% 7 + Calendar.SUNDAY;
 							mCounter[1] = (restaurant.getHours()
-									.getRangesToModify(mCounter[0]).isEmpty() ? -1
+									.getDayRanges(mCounter[0]).isEmpty() ? -1
 									: 0);
 						}
 						updateRangeText();
@@ -95,7 +126,7 @@ public class RestaurantDetails extends TabActivity implements
 							mCounter[0] = (mCounter[0] - Calendar.SUNDAY + 7 - 1)
 									% 7 + Calendar.SUNDAY;
 							mCounter[1] = restaurant.getHours()
-									.getRangesToModify(mCounter[0]).size() - 1;
+									.getDayRanges(mCounter[0]).size() - 1;
 						}
 
 						updateRangeText();
@@ -141,20 +172,6 @@ public class RestaurantDetails extends TabActivity implements
 					.setVisibility(View.GONE);
 		}
 
-		// TAB SET UP
-		mTabHost = getTabHost();
-		mTabHost.addTab(mTabHost.newTabSpec("tab1").setIndicator("Details",
-				getResources().getDrawable(R.drawable.ic_tab_details_main))
-				.setContent(R.restaurantDetails.mainContent));
-		mTabHost.addTab(mTabHost.newTabSpec("tab2").setIndicator("Map",
-				getResources().getDrawable(R.drawable.ic_tab_details_map))
-				.setContent(
-						new Intent(this, OneLocation.class).putExtra(
-								OneLocation.RESTAURANT_ID, restaurantID)));
-
-		mTabHost.setOnTabChangedListener(this);
-		mTabHost.setCurrentTab(0);
-
 		/*
 		 * TextSwitcher Code if we want to upgrade API level
 		 * 
@@ -199,7 +216,7 @@ public class RestaurantDetails extends TabActivity implements
 		if (mCounter[1] == -1)
 			range.setText("closed");
 		else
-			range.setText(restaurant.getHours().getRangesToModify(mCounter[0])
+			range.setText(restaurant.getHours().getDayRanges(mCounter[0])
 					.get(mCounter[1]).toString());
 	}
 
@@ -216,7 +233,7 @@ public class RestaurantDetails extends TabActivity implements
 
 	// private void nextRange() {
 	// if (++mCounter[1] >=
-	// restaurant.getHours().getRangesToModify(mCounter[0]).size()) {
+	// restaurant.getHours().getDayRanges(mCounter[0]).size()) {
 	// mCounter[0] = (mCounter[0] - Calendar.SUNDAY + 1) % 7 + Calendar.SUNDAY;
 	// mCounter[1] = 0;
 	// }
@@ -224,7 +241,7 @@ public class RestaurantDetails extends TabActivity implements
 	// private void previousRange() {
 	// if (--mCounter[1] < 0) {
 	// mCounter[0] = (mCounter[0] - Calendar.SUNDAY - 1) % 7 + Calendar.SUNDAY;
-	// mCounter[1] = restaurant.getHours().getRangesToModify(mCounter[0]).size()
+	// mCounter[1] = restaurant.getHours().getDayRanges(mCounter[0]).size()
 	// - 1;
 	// }
 	// }
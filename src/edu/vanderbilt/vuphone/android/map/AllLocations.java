@@ -14,6 +14,8 @@ import com.google.android.maps.MapView;
 import com.google.android.maps.MyLocationOverlay;
 
 import edu.vanderbilt.vuphone.android.dining.R;
+import edu.vanderbilt.vuphone.android.objects.TransitionScheduler;
+import edu.vanderbilt.vuphone.android.storage.DbLoader;
 
 /**
  * Creates the map that displays the location of all dining facilities
@@ -23,8 +25,9 @@ import edu.vanderbilt.vuphone.android.dining.R;
 public class AllLocations extends MapActivity {
 
 	MapView mapView;
-	AllOverlays diningOverlay;
+	AllOverlays diningOverlay; // null until the map data is loaded
 	MyLocationOverlay myLocationOverlay;
+	private boolean resumed;
 	
 	/**
 	 * sets zoom so all dining locations and most of Vanderbilts campus are
@@ -41,16 +44,27 @@ public class AllLocations extends MapActivity {
 		setContentView(R.layout.map);
 		mapView = (MapView) findViewById(R.map.mapview);
 		
-		// creates the overlay containing markers for all dining locations
-		diningOverlay = new AllOverlays(this, mapView);
-		
 		myLocationOverlay = new MyLocationOverlay(this,
 				mapView);
 		myLocationOverlay.enableMyLocation(); 
 
-		mapView.getOverlays().add(diningOverlay);
 		mapView.getOverlays().add(myLocationOverlay);
 		
+		// the locations are read in the background, right away if they are cached
+		DbLoader.loadMapData(this, new DbLoader.Callback<Void>() {
+			public void onLoaded(Void result) {
+				showLocations();
+			}
+		});
+	}
+	
+	// creates the overlay containing markers for all dining locations
+	private void showLocations() {
+		diningOverlay = new AllOverlays(this, mapView);
+		mapView.getOverlays().add(0, diningOverlay);
+		if (resumed)
+			TransitionScheduler.get().register(diningOverlay);
+		updateSettings();
 	}
 	
 	@Override
@@ -61,6 +75,28 @@ public class AllLocations extends MapActivity {
 		mapView.getController().setCenter(CENTER);
 	}
 
+	@Override
+	protected void onResume() {
+		super.onResume();
+		resumed = true;
+		if (diningOverlay != null)
+			TransitionScheduler.get().register(diningOverlay);
+	}
+	
+	@Override
+	protected void onPause() {
+		super.onPause();
+		resumed = false;
+		if (diningOverlay != null)
+			TransitionScheduler.get().unregister(diningOverlay);
+	}
+	
+	@Override
+	protected void onDestroy() {
+		super.onDestroy();
+		DbLoader.cancel(this);
+	}
+
 	@Override
 	protected boolean isRouteDisplayed() {
 		return false;
@@ -171,6 +207,8 @@ public class AllLocations extends MapActivity {
 	}
 	
 	private void updateSettings() {
+		if (diningOverlay == null)
+			return; // applied once the locations are loaded
 		// update this function with more entries as more settings are added
 		diningOverlay.setHideForFilter(settingsChecked[0], AllOverlays.FILTER_CLOSED);
 		diningOverlay.setHideForFilter(settingsChecked[1], AllOverlays.FILTER_PLAN);
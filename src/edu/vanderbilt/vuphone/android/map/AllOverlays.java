@@ -1,6 +1,7 @@
 package edu.vanderbilt.vuphone.android.map;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import android.content.Intent;
 import android.view.View;
@@ -14,15 +15,19 @@ import com.google.android.maps.OverlayItem;
 
 import edu.vanderbilt.vuphone.android.dining.R;
 import edu.vanderbilt.vuphone.android.dining.RestaurantDetails;
+import edu.vanderbilt.vuphone.android.objects.Clock;
+import edu.vanderbilt.vuphone.android.objects.NowSnapshot;
 import edu.vanderbilt.vuphone.android.objects.RestaurantAdapter;
+import edu.vanderbilt.vuphone.android.objects.TransitionScheduler;
 import edu.vanderbilt.vuphone.android.storage.Restaurant;
+import edu.vanderbilt.vuphone.android.storage.RestaurantTable;
 
 /**
  * Creates an array of overlay items that are then added to the map view
  * 
  * @author Peter
  */
-public class AllOverlays extends ItemizedOverlay<OverlayItem> implements View.OnClickListener {
+public class AllOverlays extends ItemizedOverlay<OverlayItem> implements View.OnClickListener, TransitionScheduler.Listener {
 	
 	private static final int NUM_FILTERS = 3;
 	public static final int FILTER_CLOSED = 0;
@@ -39,6 +44,7 @@ public class AllOverlays extends ItemizedOverlay<OverlayItem> implements View.On
 	
 	private ArrayList<OverlayItem> locationOverlay = new ArrayList<OverlayItem>();
 	private boolean [][] show; // will show an item only if every entry in the column is true
+	private boolean hideClosed;
 
 	public AllOverlays(AllLocations map, MapView mapview) {
 
@@ -52,23 +58,54 @@ public class AllOverlays extends ItemizedOverlay<OverlayItem> implements View.On
 		
 		popup.setOnClickListener(this);
 		
-		ArrayList<Long> IDs = Restaurant.getIDs();
+		List<Long> IDs = Restaurant.getIDs();
 		show = new boolean [NUM_FILTERS][IDs.size()]; // only 1 possible criteria for showing now
+		NowSnapshot now = Clock.snapshot();
 
 		for (int i = 0; i < IDs.size(); i++) {
-			OverlayItem overlayItem = new OverlayItem(new GeoPoint(Restaurant.getLat(IDs.get(i)),
-					Restaurant.getLon(IDs.get(i))), Restaurant.getName(IDs.get(i)), RestaurantAdapter.hoursText(IDs.get(i)));
-			if (Restaurant.offCampus(IDs.get(i)))
-				overlayItem.setMarker(boundCenterBottom(map.getResources().getDrawable(R.drawable.map_marker_n)));
-					// TODO get a better custom marker for off campus restaurants and/or make more custom markers for different 
-					// types or individual restaurants
-			else overlayItem.setMarker(boundCenterBottom(map.getResources().getDrawable(R.drawable.map_marker_v)));
-			locationOverlay.add(overlayItem);
+			locationOverlay.add(makeItem(IDs.get(i), now));
 			for (int j = 0; j < NUM_FILTERS; j++)
 				show[j][i] = true;
 		} 
 		populate();
 	}
+	
+	// creates the marker for one restaurant, with its hours as of now in the snippet
+	private OverlayItem makeItem(long rowID, NowSnapshot now) {
+		OverlayItem overlayItem = new OverlayItem(new GeoPoint(Restaurant.getLat(rowID),
+				Restaurant.getLon(rowID)), Restaurant.getName(rowID), RestaurantAdapter.hoursText(rowID, now));
+		if (Restaurant.offCampus(rowID))
+			overlayItem.setMarker(boundCenterBottom(map.getResources().getDrawable(R.drawable.map_marker_n)));
+				// TODO get a better custom marker for off campus restaurants and/or make more custom markers for different 
+				// types or individual restaurants
+		else overlayItem.setMarker(boundCenterBottom(map.getResources().getDrawable(R.drawable.map_marker_v)));
+		return overlayItem;
+	}
+	
+	/** 
+	 * Called by the TransitionScheduler when restaurants open or close, remakes their markers 
+	 * so the hours shown are current and reapplies the closed filter
+	 * @see TransitionScheduler.Listener#onTransition(long[], NowSnapshot)
+	 */
+	public void onTransition(long [] changedIDs, NowSnapshot now) {
+		// one version of the cache throughout; a restaurant a reseed removed since is skipped
+		RestaurantTable t = Restaurant.getTable();
+		if (changedIDs.length == 0 || t.size() != show[0].length)
+			return;
+		for (int k = 0; k < changedIDs.length; k++) {
+			int i = t.indexOf(changedIDs[k]);
+			if (i >= 0 && i < locationOverlay.size())
+				locationOverlay.set(i, makeItem(changedIDs[k], now));
+		}
+		if (hideClosed) {
+			setHideForFilter(false, FILTER_CLOSED);
+			setHideForFilter(true, FILTER_CLOSED);
+		}
+		clickedPosition = -1;
+		popup.setVisibility(View.GONE);
+		setLastFocusedIndex(-1);
+		populate();
+	}
 
 	@Override
 	protected boolean onTap(int index) {
@@ -126,7 +163,7 @@ public class AllOverlays extends ItemizedOverlay<OverlayItem> implements View.On
 		return size;
 	}
 
-
+
 	public void onClick(View v) {
 		Intent toDetails = new Intent(map, RestaurantDetails.class);
 		toDetails.putExtra(RestaurantDetails.RESTAURANT_ID, Restaurant.getIDs().get(clickedPosition));
@@ -138,14 +175,17 @@ public class AllOverlays extends ItemizedOverlay<OverlayItem> implements View.On
 	}
 	
 	public void setHideForFilter(boolean hide, int filter) {
+		if (filter == FILTER_CLOSED)
+			hideClosed = hide;
 		if (!hide) 
 			for (int i = 0; i < show[0].length; i++)
 				setShowItem(i, filter, true);
 		else {
 			switch (filter) {
 			case FILTER_CLOSED:
+				TransitionScheduler scheduler = TransitionScheduler.get();
 				for (int i = 0; i < show[0].length; i++)
-					if (!Restaurant.getHours(Restaurant.getIDs().get(i)).isOpen())
+					if (!scheduler.isOpenAt(i))
 						setShowItem(i, filter, false);
 				break;
 			case FILTER_PLAN:
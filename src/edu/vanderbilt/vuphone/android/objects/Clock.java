@@ -0,0 +1,93 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+/**
+ * Source of the current time for the hours code. The application uses the system clock; tests
+ * and benchmarks can install a fixed or simulated one with setDefault().
+ * 
+ */
+public abstract class Clock {
+	
+	/** The clock backed by the device's time and time zone */
+	public static final Clock SYSTEM = new SystemClock();
+	
+	private static volatile Clock defaultClock = SYSTEM;
+	
+	// returns the current moment of the week
+	public abstract NowSnapshot now();
+	
+	// returns the current moment of the week according to the default clock
+	public static NowSnapshot snapshot() {
+		return defaultClock.now();
+	}
+	
+	public static Clock getDefault() {
+		return defaultClock;
+	}
+	
+	// replaces the clock used by every hours query not given a snapshot, null restores the system clock
+	public static void setDefault(Clock clock) {
+		defaultClock = clock == null ? SYSTEM : clock;
+	}
+	
+	/**
+	 * Reads the device time. A single calendar is reused, and the snapshot is 
+	 * only rebuilt once the wall clock has moved on to a new minute.
+	 */
+	private static class SystemClock extends Clock {
+		
+		private static final long MILLIS_PER_MINUTE = 60 * 1000;
+		
+		private final Calendar _calendar = new GregorianCalendar();
+		private long _minuteStart = Long.MIN_VALUE;
+		private NowSnapshot _last;
+		
+		public synchronized NowSnapshot now() {
+			long millis = System.currentTimeMillis();
+			if (_last == null || millis < _minuteStart || millis >= _minuteStart + MILLIS_PER_MINUTE) {
+				_calendar.setTimeInMillis(millis);
+				_last = NowSnapshot.onDate(NowSnapshot.dayNumber(_calendar), 
+						_calendar.get(Calendar.HOUR_OF_DAY) * 60 + _calendar.get(Calendar.MINUTE));
+				_minuteStart = millis - (_calendar.get(Calendar.SECOND) * 1000 + _calendar.get(Calendar.MILLISECOND));
+			}
+			return _last;
+		}
+	}
+	
+	/**
+	 * A clock that only moves when told to, for tests, benchmarks and for 
+	 * simulating the passage of time
+	 */
+	public static class FixedClock extends Clock {
+		
+		private volatile NowSnapshot _now;
+		
+		public FixedClock(NowSnapshot now) {
+			set(now);
+		}
+		
+		public FixedClock(int calendarDay, int hour, int minute) {
+			this(new NowSnapshot(calendarDay, hour, minute));
+		}
+		
+		public NowSnapshot now() {
+			return _now;
+		}
+		
+		public void set(NowSnapshot now) {
+			if (now == null)
+				throw new RuntimeException("FixedClock needs a time");
+			_now = now;
+		}
+		
+		// moves the clock forward (or backward, if negative) by the given number of minutes
+		public void advance(int minutes) {
+			NowSnapshot now = _now;
+			if (now.hasDate())
+				_now = NowSnapshot.onDate(now.getDate(), now.getMinuteOfDay() + minutes);
+			else _now = NowSnapshot.ofMinuteOfWeek(now.getMinuteOfWeek() + minutes);
+		}
+	}
+}
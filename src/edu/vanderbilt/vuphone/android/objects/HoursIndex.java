@@ -0,0 +1,171 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import java.util.Calendar;
+
+/**
+ * Compiled form of a restaurant's weekly hours. Every minute of the week is one bit
+ * (set if open), and the minutes at which the open state flips are kept in a sorted
+ * table, with an hourly index into that table. Point queries are a bit test and a
+ * short table lookup, and never allocate.
+ *
+ * Minutes are counted from Sunday 00:00, so a minute of the week is
+ * (calendarDay - Calendar.SUNDAY) * 1440 + minute of the day. The open state at a
+ * range's end minute is closed (ranges are [start, end)).
+ *
+ */
+public final class HoursIndex {
+
+	public static final int MINUTES_PER_DAY = 1440;
+	public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+	public static final int HOURS_PER_WEEK = MINUTES_PER_WEEK / 60;
+
+	// number of 64 bit words needed to hold one bit per minute of the week
+	private static final int WORDS = (MINUTES_PER_WEEK + 63) / 64;
+	// number of bits used in the last word
+	private static final int LAST_WORD_BITS = MINUTES_PER_WEEK - (WORDS - 1) * 64;
+
+	// one bit per minute of the week, set when open
+	private final long [] _open;
+	// sorted minutes of the week at which the open state differs from the minute before
+	private final int [] _transitions;
+	// for each hour of the week, the index of the first transition at or after it
+	private final short [] _hourIndex;
+
+	private HoursIndex(long [] open) {
+		_open = open;
+		_transitions = findTransitions(open);
+		_hourIndex = new short[HOURS_PER_WEEK];
+		int t = 0;
+		for (int hr = 0; hr < HOURS_PER_WEEK; hr++) {
+			while (t < _transitions.length && _transitions[t] < hr * 60)
+				t++;
+			_hourIndex[hr] = (short)t;
+		}
+	}
+
+	// compiles [start, end) pairs of minutes of the week (as kept by RestaurantHours), 
+	// ends may be past the end of the week
+	public static HoursIndex compile(int [] intervals) {
+		long [] open = new long[WORDS];
+		for (int i = 0; i + 1 < intervals.length; i += 2)
+			setOpen(open, intervals[i], intervals[i + 1] - intervals[i]);
+		return new HoursIndex(open);
+	}
+
+	// returns the minute of the week for a calendar day and minute of that day
+	public static int minuteOfWeek(int calendarDay, int minuteOfDay) {
+		return (calendarDay - Calendar.SUNDAY) * MINUTES_PER_DAY + minuteOfDay;
+	}
+
+	// returns true if open during the given minute of the week
+	public boolean isOpen(int minuteOfWeek) {
+		return (_open[minuteOfWeek >> 6] & (1L << minuteOfWeek)) != 0;
+	}
+
+	// true if the open state never changes (always open, or never open)
+	public boolean constant() {
+		return _transitions.length == 0;
+	}
+
+	// returns the first minute after minuteOfWeek at which the open state changes,
+	// counted on from minuteOfWeek (so it may be past the end of the week),
+	// -1 if the state never changes
+	public int nextChange(int minuteOfWeek) {
+		if (_transitions.length == 0)
+			return -1;
+		int i = _hourIndex[minuteOfWeek / 60];
+		while (i < _transitions.length && _transitions[i] <= minuteOfWeek)
+			i++;
+		if (i < _transitions.length)
+			return _transitions[i];
+		return _transitions[0] + MINUTES_PER_WEEK;
+	}
+
+	// returns the last minute at or before minuteOfWeek at which the open state changed,
+	// counted back from minuteOfWeek (so it may be negative),
+	// Integer.MIN_VALUE if the state never changes
+	public int lastChange(int minuteOfWeek) {
+		if (_transitions.length == 0)
+			return Integer.MIN_VALUE;
+		int i = _hourIndex[minuteOfWeek / 60];
+		while (i < _transitions.length && _transitions[i] <= minuteOfWeek)
+			i++;
+		if (i > 0)
+			return _transitions[i - 1];
+		return _transitions[_transitions.length - 1] - MINUTES_PER_WEEK;
+	}
+
+	// returns the number of minutes until the next opening, 0 if open, -1 if never open
+	public int minutesToOpen(int minuteOfWeek) {
+		if (isOpen(minuteOfWeek))
+			return 0;
+		int next = nextChange(minuteOfWeek);
+		return next < 0 ? -1 : next - minuteOfWeek;
+	}
+
+	// returns the number of minutes until the next closing, 0 if closed, -1 if never closed
+	public int minutesToClose(int minuteOfWeek) {
+		if (!isOpen(minuteOfWeek))
+			return 0;
+		int next = nextChange(minuteOfWeek);
+		return next < 0 ? -1 : next - minuteOfWeek;
+	}
+
+	// sets length bits starting at the given minute, wrapping around the end of the week
+	private static void setOpen(long [] open, int from, int length) {
+		if (length >= MINUTES_PER_WEEK) {
+			setBits(open, 0, MINUTES_PER_WEEK);
+			return;
+		}
+		from %= MINUTES_PER_WEEK;
+		int to = from + length;
+		if (to > MINUTES_PER_WEEK) {
+			setBits(open, from, MINUTES_PER_WEEK);
+			setBits(open, 0, to - MINUTES_PER_WEEK);
+		} else setBits(open, from, to);
+	}
+
+	// sets bits [from, to)
+	private static void setBits(long [] open, int from, int to) {
+		if (from >= to)
+			return;
+		int first = from >> 6;
+		int last = (to - 1) >> 6;
+		long firstMask = -1L << from;
+		long lastMask = -1L >>> (63 - ((to - 1) & 63));
+		if (first == last) {
+			open[first] |= firstMask & lastMask;
+			return;
+		}
+		open[first] |= firstMask;
+		for (int w = first + 1; w < last; w++)
+			open[w] = -1L;
+		open[last] |= lastMask;
+	}
+
+	// finds every minute whose bit differs from the minute before it (wrapping at the week's end)
+	private static int [] findTransitions(long [] open) {
+		int [] found = new int[16];
+		int count = 0;
+		long carry = (open[WORDS - 1] >>> (LAST_WORD_BITS - 1)) & 1;
+		for (int w = 0; w < WORDS; w++) {
+			long word = open[w];
+			long diff = word ^ ((word << 1) | carry);
+			if (w == WORDS - 1 && LAST_WORD_BITS < 64)
+				diff &= (1L << LAST_WORD_BITS) - 1;
+			while (diff != 0) {
+				if (count == found.length) {
+					int [] bigger = new int[count * 2];
+					System.arraycopy(found, 0, bigger, 0, count);
+					found = bigger;
+				}
+				found[count++] = (w << 6) + Long.numberOfTrailingZeros(diff);
+				diff &= diff - 1;
+			}
+			carry = word >>> 63;
+		}
+		int [] out = new int[count];
+		System.arraycopy(found, 0, out, 0, count);
+		return out;
+	}
+}
@@ -0,0 +1,63 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+/**
+ * Hours that replace a restaurant's weekly hours on a run of dates (a holiday, a break,
+ * finals week). On each date from the first to the last, the ranges starting that day are
+ * taken from the override's own hours for that day of the week instead of the weekly hours;
+ * empty hours close the restaurant for the whole run.
+ *
+ * Dates are day numbers (days since 1 Jan 1970), see NowSnapshot.dayNumber()
+ *
+ */
+public final class HoursOverride {
+
+	private final int _firstDay;
+	private final int _lastDay;
+	private final RestaurantHours _hours;
+	private final String _note;
+
+	/**
+	 * @param firstDay
+	 * 	first date the override applies on
+	 * @param lastDay
+	 * 	last date the override applies on, inclusive
+	 * @param hours
+	 * 	the hours to use on those dates, empty if closed
+	 * @param note
+	 * 	why the hours are different (eg "Thanksgiving break"), may be null
+	 */
+	public HoursOverride(int firstDay, int lastDay, RestaurantHours hours, String note) {
+		if (lastDay < firstDay)
+			throw new RuntimeException("HoursOverride: last day must not be before the first day");
+		if (hours == null)
+			throw new RuntimeException("HoursOverride: hours must not be null, use empty hours to close");
+		_firstDay = firstDay;
+		_lastDay = lastDay;
+		_hours = hours;
+		_note = note;
+	}
+
+	// returns an override closing the restaurant from the first to the last date
+	public static HoursOverride closed(int firstDay, int lastDay, String note) {
+		return new HoursOverride(firstDay, lastDay, new RestaurantHours(), note);
+	}
+
+	public int getFirstDay() 			{return _firstDay;}
+	public int getLastDay() 			{return _lastDay;}
+	public RestaurantHours getHours() 	{return _hours;}
+	public String getNote() 			{return _note;}
+
+	// true if the override applies on the date
+	public boolean covers(int date) {
+		return _firstDay <= date && date <= _lastDay;
+	}
+
+	// true if the override applies on any date from first to last
+	public boolean overlaps(int firstDay, int lastDay) {
+		return _firstDay <= lastDay && firstDay <= _lastDay;
+	}
+
+	public String toString() {
+		return "#" + _firstDay + "-#" + _lastDay + (_note == null ? "" : " " + _note);
+	}
+}
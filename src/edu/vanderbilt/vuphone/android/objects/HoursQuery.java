@@ -0,0 +1,241 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import edu.vanderbilt.vuphone.android.storage.Restaurant;
+
+/**
+ * Answers hours questions about every restaurant at once, for any minute of the week rather
+ * than just now: which are open at a time, which open within some minutes of a time, and which
+ * stay open for a whole interval.
+ *
+ * The week is cut at every minute where any restaurant opens or closes, so between two cuts
+ * the set of open restaurants is constant. Each piece keeps that set as a row of bits, so a
+ * point query is a binary search and a copy, and an interval query combines the rows of the
+ * pieces it covers.
+ *
+ * Results are BitSets of cache indexes (as returned by Restaurant.getI()), use toIDs()
+ * to turn them into row ids. Minutes are minutes of the week, see HoursIndex.
+ *
+ */
+public final class HoursQuery {
+
+	private static final int WEEK = HoursIndex.MINUTES_PER_WEEK;
+
+	private static HoursQuery instance;
+	private static int instanceDate;
+	private static volatile boolean invalid = true;
+
+	// row ids of the restaurants, in cache order
+	private final long [] _ids;
+	// number of longs in a row of bits
+	private final int _words;
+	// sorted minutes at which the pieces start, the first is always 0
+	private final int [] _cuts;
+	// _words longs per piece, bit i set when restaurant i is open during the piece
+	private final long [] _open;
+
+	private HoursQuery(long [] ids, RestaurantHours [] hours) {
+		_ids = ids;
+		_words = Math.max((ids.length + 63) >> 6, 1);
+
+		// every interval's start and end (wrapped into the week) is a cut
+		int count = 1;
+		for (int r = 0; r < hours.length; r++)
+			count += hours[r].getIntervals().length;
+		int [] cuts = new int[count];
+		int n = 1; // cuts[0] == 0
+		for (int r = 0; r < hours.length; r++) {
+			int [] intervals = hours[r].getIntervals();
+			for (int i = 0; i < intervals.length; i++)
+				cuts[n++] = intervals[i] % WEEK;
+		}
+		Arrays.sort(cuts);
+		int unique = 1;
+		for (int i = 1; i < n; i++)
+			if (cuts[i] != cuts[unique - 1])
+				cuts[unique++] = cuts[i];
+		_cuts = new int[unique];
+		System.arraycopy(cuts, 0, _cuts, 0, unique);
+
+		_open = new long[unique * _words];
+		for (int r = 0; r < hours.length; r++) {
+			int [] intervals = hours[r].getIntervals();
+			for (int i = 0; i < intervals.length; i += 2) {
+				int start = intervals[i];
+				int end = intervals[i + 1];
+				mark(r, start, Math.min(end, WEEK));
+				if (end > WEEK)
+					mark(r, 0, end - WEEK);
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of every restaurant's hours as they are in effect this week (with the 
+	 * overrides applying from yesterday until five days from now, see RestaurantHours.effectiveOn()). 
+	 * It is built again if the data has changed or the date has moved on
+	 */
+	public static synchronized HoursQuery get() {
+		NowSnapshot now = Clock.snapshot();
+		if (invalid || instance == null || instanceDate != now.getDate()) {
+			List<Long> IDs = Restaurant.getIDs();
+			long [] ids = new long[IDs.size()];
+			RestaurantHours [] hours = new RestaurantHours[ids.length];
+			for (int i = 0; i < ids.length; i++) {
+				ids[i] = IDs.get(i);
+				hours[i] = Restaurant.getHours(ids[i]).effectiveOn(now);
+			}
+			invalid = false;
+			instanceDate = now.getDate();
+			instance = new HoursQuery(ids, hours);
+		}
+		return instance;
+	}
+
+	// builds an index over the given hours, restaurant i having row id ids[i]
+	public static HoursQuery build(long [] ids, RestaurantHours [] hours) {
+		if (ids.length != hours.length)
+			throw new RuntimeException("build(long[], RestaurantHours[]): need one id per hours");
+		return new HoursQuery(ids, hours);
+	}
+
+	/**
+	 * Marks the shared index as out of date, call when restaurants or their hours
+	 * are added, removed or changed. It is rebuilt by the next get()
+	 */
+	public static void invalidate() {
+		invalid = true;
+	}
+
+	// returns the number of restaurants indexed
+	public int size() {
+		return _ids.length;
+	}
+
+	// returns the row id of the restaurant with the given index
+	public long getID(int i) {
+		return _ids[i];
+	}
+
+	// returns the row ids of the restaurants set in found, in index order
+	public long [] toIDs(BitSet found) {
+		long [] out = new long[found.cardinality()];
+		int j = 0;
+		for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1))
+			out[j++] = _ids[i];
+		return out;
+	}
+
+	// returns the restaurants open at the given time
+	public BitSet openAt(NowSnapshot t) {
+		return openAt(t.getMinuteOfWeek());
+	}
+
+	// returns the restaurants open during the given minute of the week
+	public BitSet openAt(int minuteOfWeek) {
+		long [] row = new long[_words];
+		System.arraycopy(_open, piece(wrap(minuteOfWeek)) * _words, row, 0, _words);
+		return toBitSet(row);
+	}
+
+	/**
+	 * Returns the restaurants which are closed at the given minute, but open at some point
+	 * in the following minutes
+	 * @param minuteOfWeek
+	 * 	the time to start from
+	 * @param minutes
+	 * 	how far ahead to look, minutes after minuteOfWeek up to and including this many are checked
+	 * @return the restaurants opening within the time
+	 */
+	public BitSet openingWithin(int minuteOfWeek, int minutes) {
+		if (minutes < 0)
+			throw new RuntimeException("openingWithin(int, int): minutes must not be negative");
+		int from = wrap(minuteOfWeek);
+		int first = piece(from);
+		long [] row = new long[_words];
+		if (minutes > 0)
+			combine(row, from + 1, from + Math.min(minutes, WEEK) + 1, false);
+		for (int w = 0; w < _words; w++)
+			row[w] &= ~_open[first * _words + w];
+		return toBitSet(row);
+	}
+
+	/**
+	 * Returns the restaurants which are open for every minute of [from, to)
+	 * @param from
+	 * 	first minute of the week to check
+	 * @param to
+	 * 	minute after the last one to check, may be past the end of the week (to cover
+	 * 	Saturday night into Sunday), and no more than a week after from
+	 * @return the restaurants open throughout
+	 */
+	public BitSet openThroughout(int from, int to) {
+		if (to <= from || to - from > WEEK)
+			throw new RuntimeException("openThroughout(int, int): need from < to <= from + one week");
+		int start = wrap(from);
+		long [] row = new long[_words];
+		Arrays.fill(row, -1L);
+		combine(row, start, start + (to - from), true);
+		return toBitSet(row);
+	}
+
+	// ANDs (or ORs) into row the pieces covering minutes [from, to), to may be past the end of the week
+	private void combine(long [] row, int from, int to, boolean and) {
+		int p = piece(from % WEEK);
+		int minute = from;
+		while (minute < to) {
+			int base = p * _words;
+			for (int w = 0; w < _words; w++) {
+				if (and)
+					row[w] &= _open[base + w];
+				else row[w] |= _open[base + w];
+			}
+			// move to the start of the next piece, counting on past the end of the week
+			int next = p + 1 < _cuts.length ? _cuts[p + 1] : WEEK;
+			minute += next - minute % WEEK;
+			p = next == WEEK ? 0 : p + 1;
+		}
+	}
+
+	// sets restaurant r open in every piece starting in [start, end)
+	private void mark(int r, int start, int end) {
+		long bit = 1L << (r & 63);
+		int word = r >> 6;
+		for (int p = piece(start); p < _cuts.length && _cuts[p] < end; p++)
+			_open[p * _words + word] |= bit;
+	}
+
+	// returns the piece containing the minute of the week
+	private int piece(int minuteOfWeek) {
+		int low = 0;
+		int high = _cuts.length - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (_cuts[mid] <= minuteOfWeek)
+				low = mid;
+			else high = mid - 1;
+		}
+		return low;
+	}
+
+	private static int wrap(int minute) {
+		return ((minute % WEEK) + WEEK) % WEEK;
+	}
+
+	private BitSet toBitSet(long [] row) {
+		BitSet out = new BitSet(_ids.length);
+		for (int w = 0; w < _words; w++) {
+			long word = row[w];
+			while (word != 0) {
+				int i = (w << 6) + Long.numberOfTrailingZeros(word);
+				if (i < _ids.length)
+					out.set(i);
+				word &= word - 1;
+			}
+		}
+		return out;
+	}
+}
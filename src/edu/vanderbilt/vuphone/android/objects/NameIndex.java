@@ -0,0 +1,200 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+
+import edu.vanderbilt.vuphone.android.storage.Restaurant;
+import edu.vanderbilt.vuphone.android.storage.RestaurantTable;
+
+/**
+ * Type-ahead over the names and types of the cached restaurants, so filtering the list as
+ * the user types needs no database query (see RestaurantSearch for the full text search).
+ * A query is cut into words, and a restaurant matches when every word appears somewhere in
+ * its name or type, ignoring case.
+ *
+ * The index keeps each restaurant's lowercased text and, for every trigram (three character
+ * run) in it, the set of restaurants containing it. A word of three or more characters only
+ * has its candidates checked, those holding all of its trigrams; shorter words are checked
+ * against every restaurant. Typing on narrows rather than starts over: Narrowing remembers
+ * the result for each query typed so far, and a query that extends one of them is only
+ * checked against that result, so each keystroke costs the restaurants still shown.
+ *
+ * Results are BitSets of cache indexes in the table the index was built on, use toIDs()
+ * to turn them into row ids.
+ *
+ */
+public final class NameIndex {
+
+	private static NameIndex instance;
+
+	private final RestaurantTable _table;
+	// name and type of each restaurant, lowercased, in cache order
+	private final String [] _texts;
+	// restaurants containing each trigram, keyed by the three characters packed in a long
+	private final HashMap<Long, BitSet> _trigrams = new HashMap<Long, BitSet>();
+
+	private NameIndex(RestaurantTable table) {
+		_table = table;
+		_texts = new String[table.size()];
+		for (int i = 0; i < _texts.length; i++) {
+			Restaurant r = table.get(i);
+			String text = lowercase(r.getName() + "\n" + (r.getType() == null ? "" : r.getType()));
+			_texts[i] = text;
+			for (int c = 0; c + 3 <= text.length(); c++) {
+				Long key = trigram(text, c);
+				BitSet holding = _trigrams.get(key);
+				if (holding == null) {
+					holding = new BitSet(_texts.length);
+					_trigrams.put(key, holding);
+				}
+				holding.set(i);
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the current cache, built again when the cache has changed
+	 * since it was last asked for
+	 */
+	public static synchronized NameIndex get() {
+		RestaurantTable table = Restaurant.getTable();
+		if (instance == null || instance._table != table)
+			instance = new NameIndex(table);
+		return instance;
+	}
+
+	// returns the number of restaurants indexed
+	public int size() {
+		return _texts.length;
+	}
+
+	// returns the row ids of the restaurants set in found, ascending
+	public long [] toIDs(BitSet found) {
+		long [] out = new long[found.cardinality()];
+		int j = 0;
+		for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1))
+			out[j++] = _table.getID(i);
+		return out;
+	}
+
+	/**
+	 * Returns the restaurants matching every word
+	 * @param words
+	 * 	lowercased words, see words()
+	 * @param candidates
+	 * 	the only restaurants to check, null to check them all
+	 * @return the matching restaurants, a new set
+	 */
+	public BitSet match(String [] words, BitSet candidates) {
+		BitSet found;
+		if (candidates != null)
+			found = (BitSet)candidates.clone();
+		else {
+			found = null;
+			for (int w = 0; w < words.length; w++) {
+				String word = words[w];
+				for (int c = 0; c + 3 <= word.length(); c++) {
+					BitSet holding = _trigrams.get(trigram(word, c));
+					if (holding == null)
+						return new BitSet(0);
+					if (found == null)
+						found = (BitSet)holding.clone();
+					else found.and(holding);
+				}
+			}
+			if (found == null) {
+				found = new BitSet(_texts.length);
+				found.set(0, _texts.length);
+			}
+		}
+		// holding every trigram of a word does not make it a substring, so each is checked
+		for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1))
+			for (int w = 0; w < words.length; w++)
+				if (_texts[i].indexOf(words[w]) < 0) {
+					found.clear(i);
+					break;
+				}
+		return found;
+	}
+
+	/**
+	 * Cuts a query into its lowercased runs of letters and digits
+	 * @return the words, none if the query has none
+	 */
+	public static String [] words(CharSequence query) {
+		ArrayList<String> words = new ArrayList<String>(4);
+		String text = lowercase(query.toString());
+		int length = text.length();
+		for (int i = 0; i < length; ) {
+			while (i < length && !Character.isLetterOrDigit(text.charAt(i)))
+				i++;
+			int start = i;
+			while (i < length && Character.isLetterOrDigit(text.charAt(i)))
+				i++;
+			if (i > start)
+				words.add(text.substring(start, i));
+		}
+		return words.toArray(new String[words.size()]);
+	}
+
+	private static Long trigram(String text, int at) {
+		return ((long)text.charAt(at) << 32) | ((long)text.charAt(at + 1) << 16) | text.charAt(at + 2);
+	}
+
+	// lowercases char by char, the same whatever the default locale
+	private static String lowercase(String s) {
+		char [] chars = s.toCharArray();
+		for (int i = 0; i < chars.length; i++)
+			chars[i] = Character.toLowerCase(chars[i]);
+		return new String(chars);
+	}
+
+	/**
+	 * Filters for a query typed a character at a time. Each result is kept with its query,
+	 * and a query extending a kept one is only checked against that one's result; when
+	 * characters are deleted the results of the longer queries are dropped, and the
+	 * shorter one kept is used again. Not to be used from more than one thread at a time
+	 */
+	public static final class Narrowing {
+		private NameIndex _index;
+		// the queries (words joined by single spaces) each extending the one before, and their results
+		private final ArrayList<String> _queries = new ArrayList<String>();
+		private final ArrayList<BitSet> _results = new ArrayList<BitSet>();
+
+		/**
+		 * Returns the restaurants matching the query in the current index
+		 * @param query
+		 * 	what the user typed
+		 * @return the index searched, and the result, see match()
+		 */
+		public BitSet find(NameIndex index, CharSequence query) {
+			if (index != _index) {
+				_index = index;
+				_queries.clear();
+				_results.clear();
+			}
+			String [] words = words(query);
+			StringBuilder joined = new StringBuilder(query.length());
+			for (int w = 0; w < words.length; w++) {
+				if (w > 0)
+					joined.append(' ');
+				joined.append(words[w]);
+			}
+			String normal = joined.toString();
+			// a match of the longer words also matches their prefixes, so this result narrows
+			// the one of any query that is a prefix of this one
+			int last = _queries.size() - 1;
+			while (last >= 0 && !normal.startsWith(_queries.get(last))) {
+				_queries.remove(last);
+				_results.remove(last--);
+			}
+			if (last >= 0 && normal.equals(_queries.get(last)))
+				return (BitSet)_results.get(last).clone();
+			BitSet found = index.match(words, last >= 0 ? _results.get(last) : null);
+			_queries.add(normal);
+			_results.add(found);
+			return (BitSet)found.clone();
+		}
+	}
+}
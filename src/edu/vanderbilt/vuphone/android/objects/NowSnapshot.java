@@ -0,0 +1,126 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import java.util.Calendar;
+
+/**
+ * An immutable moment in the repeating week: the day of the week and the minute of that day.
+ * Take one from a Clock at the start of a pass over the restaurants (a sort, a redraw of the list
+ * or map) and hand it to every hours query, so that the whole pass agrees on what "now" is and 
+ * no calendars are built per query.
+ * 
+ * Snapshots from a Clock also carry the date, as a day number (days since 1 Jan 1970), which 
+ * is what date specific hours (HoursOverride) are looked up by. Snapshots made from just a 
+ * day of the week have no date, and only see the weekly hours.
+ * 
+ */
+public final class NowSnapshot {
+
+	/** Returned by getDate() when the snapshot has no date */
+	public static final int NO_DATE = Integer.MIN_VALUE;
+	
+	// day number of the date (days since 1 Jan 1970), or NO_DATE
+	private final int _date;
+	// day of the week as defined by the Calendar class
+	private final int _day;
+	// minutes elapsed in the day (0-1439)
+	private final int _minuteOfDay;
+	// minutes elapsed since Sunday 00:00 (see HoursIndex)
+	private final int _minuteOfWeek;
+	
+	public NowSnapshot(int calendarDay, int minuteOfDay) {
+		if (calendarDay < Calendar.SUNDAY || calendarDay > Calendar.SATURDAY)
+			throw new RuntimeException("Invalid day set; must be in range Calendar.SUNDAY-Calendar.SATURDAY");
+		if (minuteOfDay < 0 || minuteOfDay >= HoursIndex.MINUTES_PER_DAY)
+			throw new RuntimeException("Invalid minute of day set; must be in range 0-1439");
+		_date = NO_DATE;
+		_day = calendarDay;
+		_minuteOfDay = minuteOfDay;
+		_minuteOfWeek = HoursIndex.minuteOfWeek(calendarDay, minuteOfDay);
+	}
+	
+	public NowSnapshot(int calendarDay, int hour, int minute) {
+		this(calendarDay, hour * 60 + minute);
+	}
+	
+	private NowSnapshot(int date, int calendarDay, int minuteOfDay, int minuteOfWeek) {
+		_date = date;
+		_day = calendarDay;
+		_minuteOfDay = minuteOfDay;
+		_minuteOfWeek = minuteOfWeek;
+	}
+	
+	// returns the snapshot for a minute of a date (a day number, see dayNumber()), 
+	// minutes outside of the day move to the days before or after it
+	public static NowSnapshot onDate(int date, int minuteOfDay) {
+		date += floorDiv(minuteOfDay, HoursIndex.MINUTES_PER_DAY);
+		minuteOfDay -= floorDiv(minuteOfDay, HoursIndex.MINUTES_PER_DAY) * HoursIndex.MINUTES_PER_DAY;
+		int day = dayOfWeek(date);
+		return new NowSnapshot(date, day, minuteOfDay, HoursIndex.minuteOfWeek(day, minuteOfDay));
+	}
+	
+	// returns the day number (days since 1 Jan 1970) of a date, month is 1-12
+	public static int dayNumber(int year, int month, int dayOfMonth) {
+		// counts from 1 March, so that leap days come at the end of the year
+		int y = month <= 2 ? year - 1 : year;
+		int era = floorDiv(y, 400);
+		int yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + dayOfMonth - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+	
+	// returns the day number of the calendar's date, in the calendar's time zone
+	public static int dayNumber(Calendar calendar) {
+		return dayNumber(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) - Calendar.JANUARY + 1, 
+				calendar.get(Calendar.DAY_OF_MONTH));
+	}
+	
+	// returns the day of the week of a day number, as defined by the Calendar class
+	public static int dayOfWeek(int date) {
+		// 1 Jan 1970 was a Thursday
+		return (date - floorDiv(date + 4, 7) * 7 + 4) + Calendar.SUNDAY;
+	}
+	
+	private static int floorDiv(int a, int b) {
+		int q = a / b;
+		return (a % b != 0 && (a < 0) != (b < 0)) ? q - 1 : q;
+	}
+	
+	// returns the snapshot for a minute of the week, wrapping values outside of the week
+	public static NowSnapshot ofMinuteOfWeek(int minuteOfWeek) {
+		int m = ((minuteOfWeek % HoursIndex.MINUTES_PER_WEEK) + HoursIndex.MINUTES_PER_WEEK) 
+				% HoursIndex.MINUTES_PER_WEEK;
+		return new NowSnapshot(m / HoursIndex.MINUTES_PER_DAY + Calendar.SUNDAY, m % HoursIndex.MINUTES_PER_DAY);
+	}
+	
+	public int getDate() 			{return _date;}
+	public boolean hasDate() 		{return _date != NO_DATE;}
+	public int getDay() 			{return _day;}
+	public int getMinuteOfDay() 	{return _minuteOfDay;}
+	public int getMinuteOfWeek() 	{return _minuteOfWeek;}
+	public int getHour() 			{return _minuteOfDay / 60;}
+	public int getMinute() 			{return _minuteOfDay % 60;}
+	
+	// returns the day after this snapshot's day, as defined by the Calendar class
+	public int getTomorrow() {
+		return _day % 7 + Calendar.SUNDAY;
+	}
+	
+	// returns the number of minutes left until midnight
+	public int minutesLeftToday() {
+		return HoursIndex.MINUTES_PER_DAY - _minuteOfDay;
+	}
+	
+	public boolean equals(Object o) {
+		return o instanceof NowSnapshot && ((NowSnapshot)o)._minuteOfWeek == _minuteOfWeek 
+				&& ((NowSnapshot)o)._date == _date;
+	}
+	
+	public int hashCode() {
+		return _minuteOfWeek * 31 + _date;
+	}
+	
+	public String toString() {
+		return (hasDate() ? "#" + _date + " " : "") + _day + "@" + getHour() + ":" + (getMinute() < 10 ? "0" : "") + getMinute();
+	}
+}
@@ -1,7 +1,5 @@
 package edu.vanderbilt.vuphone.android.objects;
 
-import edu.vanderbilt.vuphone.android.dining.Main;
-
 /**
  * Stores a range of times, for the restaurant hours. start is allowed to be after end, 
  * this indicates an intraday range
@@ -124,7 +122,7 @@ public class Range {
 	}
 	
 	public String toString() {
-		return toString(Main.display24);
+		return toString(Time.display24);
 	}
 	
 	public String toString(boolean display24) {
@@ -1,6 +1,8 @@
 package edu.vanderbilt.vuphone.android.objects;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 import android.content.Context;
@@ -13,6 +15,8 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
+import android.widget.Filter;
+import android.widget.Filterable;
 import android.widget.ImageView;
 import android.widget.ListAdapter;
 import android.widget.TextView;
@@ -25,10 +29,13 @@ import edu.vanderbilt.vuphone.android.storage.Restaurant;
  * Restaurant List Adaptor, handles sorting and display of the list of restaurants and partitions of the 
  * main application page
  * 
+ * Filterable: the text typed into the list narrows it to the restaurants whose name or type
+ * holds every word typed (see NameIndex), sorted and partitioned as the whole list is.
+ * 
  * @author austin
  * 
  */
-public class RestaurantAdapter extends BaseAdapter implements ListAdapter 
+public class RestaurantAdapter extends BaseAdapter implements ListAdapter, Filterable, TransitionScheduler.Listener 
 {
 	
 	private static final int NUM_BOOLEANS = 8;
@@ -83,6 +90,14 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 	ArrayList<Double> distances;
 	LocationManager locationManager;
 	
+	// the moment the list is currently drawn and sorted for, refreshed on every 
+	// sort and notifyDataSetChanged() so that a whole pass agrees on the time
+	private NowSnapshot _now = Clock.snapshot();
+	
+	// row ids matching the text typed into the list, ascending, null when nothing is typed
+	private long [] _matching;
+	private NameFilter _filter;
+	
 	public RestaurantAdapter(Context context) {
 		this(context, DEFAULT_SORT);
 	}
@@ -154,7 +169,7 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 			wrapper.getSpecialRightView().setText(getSpecialRightText(rID));
 
 			if (getGrayClosed()) {
-				boolean enabled = Restaurant.getHours(rID).isOpen();
+				boolean enabled = TransitionScheduler.get().isOpen(rID);
 				wrapper.getNameView().setEnabled(enabled);
 				wrapper.getSpecialView().setEnabled(enabled);
 				wrapper.getFavoriteView().setEnabled(enabled);
@@ -197,20 +212,24 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 	}
 	
 	public static String hoursText(long rID) {
+		return hoursText(rID, Clock.snapshot());
+	}
+	
+	public static String hoursText(long rID, NowSnapshot now) {
 		StringBuilder out = new StringBuilder();
 		RestaurantHours rh = Restaurant.getHours(rID);
-		int toOpen = rh.minutesToOpen();
+		int toOpen = rh.minutesToOpen(now);
 		if (toOpen==0) {
-			int min = rh.minutesToClose();
+			int min = rh.minutesToClose(now);
 			if (min >= 1440)
 				out.append("open"); // open for 24 hours or more
 			else if (min<=60)
 				out.append("open for ").append(min).append(" minutes");
-			else out.append("open until ").append(rh.getNextCloseTime().toString());
+			else out.append("open until ").append(rh.getNextCloseTime(now).toString());
 		} else if (toOpen>0) {
 			if (toOpen<=60)
 				out.append("closed, opens in ").append(toOpen).append(" minutes");
-			else out.append("closed until ").append(rh.getNextOpenTime().toString());
+			else out.append("closed until ").append(rh.getNextOpenTime(now).toString());
 		} else out.append("closed"); // closed for the day
 		return out.toString();
 	}
@@ -219,7 +238,7 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 		if (showRestaurantType) {
 			return Restaurant.getType(rID) + " ";
 		} else {
-			return hoursText(rID) + " ";
+			return hoursText(rID, _now) + " ";
 		}
 	}
 	
@@ -300,6 +319,8 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 			return;
 		currentSortType = sortType;
 		_order = Restaurant.copyIDs();
+		_now = Clock.snapshot();
+		currentSortCompareCached = SORT_UNSORTED; // cached times are only good for one snapshot
 		
 		if (getHideOffCampus()) {
 			for (int i = _order.size() - 1; i >= 0; i--)
@@ -311,6 +332,11 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 				if (!Restaurant.onTheCard(_order.get(i)))
 					_order.remove(i);
 		}
+		if (_matching != null) {
+			for (int i = _order.size() - 1; i >= 0; i--)
+				if (Arrays.binarySearch(_matching, _order.get(i)) < 0)
+					_order.remove(i);
+		}
 		
 		if ((sortType & ALPHABETICAL) > 0)
 			sort(_order, ALPHABETICAL);
@@ -335,6 +361,9 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 		
 		// NOW BEGIN ADDING PARTITIONS
 		
+		if (_order.isEmpty())
+			return; // nothing matches the filter, no headers over nothing
+		
 		boolean favPart = (sortType & SHOW_FAV_PART) > 0;
 		int nonFav = -1;
 		boolean openPart = (sortType & SHOW_OPEN_PART) > 0;
@@ -406,6 +435,63 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 		setHideOffTheCard(false);
 	}
 	
+	@Override
+	public void notifyDataSetChanged() {
+		_now = Clock.snapshot();
+		super.notifyDataSetChanged();
+	}
+	
+	/** 
+	 * Called by the TransitionScheduler when restaurants open or close, resorts if 
+	 * the order depends on which restaurants are open and redraws
+	 * @see TransitionScheduler.Listener#onTransition(long[], NowSnapshot)
+	 */
+	public void onTransition(long [] changedIDs, NowSnapshot now) {
+		if ((currentSortType & SHOW_OPEN_PART) > 0 
+				|| indexOf(SORT_OPEN_CLOSED) != -1 
+				|| indexOf(SORT_TIME_TO_CLOSE) != -1 
+				|| indexOf(SORT_TIME_TO_OPEN) != -1)
+			setSort();
+		notifyDataSetChanged();
+	}
+	
+	/** @see android.widget.Filterable#getFilter() */
+	public Filter getFilter() {
+		if (_filter == null)
+			_filter = new NameFilter();
+		return _filter;
+	}
+	
+	/**
+	 * Matches on the filter thread, each query narrowing the results of the one it extends,
+	 * then resorts on the UI thread with only the matching restaurants
+	 */
+	private class NameFilter extends Filter {
+		private final NameIndex.Narrowing _narrowing = new NameIndex.Narrowing();
+		
+		@Override
+		protected FilterResults performFiltering(CharSequence constraint) {
+			FilterResults results = new FilterResults();
+			if (constraint == null || NameIndex.words(constraint).length == 0) {
+				results.values = null;
+				results.count = Restaurant.getIDs().size();
+				return results;
+			}
+			NameIndex index = NameIndex.get();
+			BitSet found = _narrowing.find(index, constraint);
+			results.values = index.toIDs(found);
+			results.count = found.cardinality();
+			return results;
+		}
+		
+		@Override
+		protected void publishResults(CharSequence constraint, FilterResults results) {
+			_matching = (long [])results.values;
+			setSort();
+			notifyDataSetChanged();
+		}
+	}
+	
 	public void setShowFavIcon(boolean show) {
 		showFavIcon = show;
 	}
@@ -563,7 +649,7 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 	}
 	private int firstClosed(int start) {
 		for (int i = start; i<_order.size(); i++)
-			if (!Restaurant.getHours(_order.get(i)).isOpen())
+			if (!TransitionScheduler.get().isOpen(_order.get(i)))
 				return i;
 		return -1;			
 	}
@@ -579,7 +665,7 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 		if (here == null) 
 			return false;
 		Location location = new Location("");
-		ArrayList<Long> IDs = Restaurant.getIDs();
+		List<Long> IDs = Restaurant.getIDs();
 		distances = new ArrayList<Double>();
 		distances.ensureCapacity(IDs.size());
 		for (int i = 0; i < IDs.size(); i++) {
@@ -681,7 +767,7 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 	
 	@SuppressWarnings("unchecked")
 	private void createCompareCache(int sortType) {
-		ArrayList<Long> IDs = Restaurant.getIDs();
+		List<Long> IDs = Restaurant.getIDs();
 		compareCache = new ArrayList<Void>();
 		compareCache.ensureCapacity(IDs.size());
 		switch (sortType & 0x7) {
@@ -691,15 +777,15 @@ public class RestaurantAdapter extends BaseAdapter implements ListAdapter
 			break;
 		case SORT_OPEN_CLOSED:
 			for (int i = 0; i<IDs.size(); i++)
-				compareCache.add(Restaurant.getHours(IDs.get(i)).isOpen());
+				compareCache.add(TransitionScheduler.get().isOpenAt(i));
 			break;
 		case SORT_TIME_TO_CLOSE:
 			for (int i = 0; i<IDs.size(); i++)
-				compareCache.add(Restaurant.getHours(IDs.get(i)).minutesToClose());
+				compareCache.add(Restaurant.getHours(IDs.get(i)).minutesToClose(_now));
 			break;
 		case SORT_TIME_TO_OPEN:
 			for (int i = 0; i<IDs.size(); i++)
-				compareCache.add(Restaurant.getHours(IDs.get(i)).minutesToOpen());
+				compareCache.add(Restaurant.getHours(IDs.get(i)).minutesToOpen(_now));
 			break;
 		}
 		currentSortCompareCached = sortType;
@@ -1,52 +1,99 @@
 package edu.vanderbilt.vuphone.android.objects;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
-import java.util.GregorianCalendar;
+import java.util.Comparator;
 
-import edu.vanderbilt.vuphone.android.dining.Main;
 /**
  * @author austin
- *	Limitations: no range can span more than 24 hours, but it can span across a day 
- *	(this is indicated when the end time is before the start time)
+ *	Hours are kept as a sorted array of [start, end) pairs of minutes of the week (counted 
+ *	from Sunday 00:00, see HoursIndex). Overlapping and back to back ranges are merged, so a 
+ *	pair may be longer than 24 hours, and the last pair may end after the end of the week 
+ *	(it carries on into Sunday).
+ *
+ *	Ranges are still added and read a day at a time as Range objects. A Range can span 
+ *	across a day (this is indicated when the end time is before the start time)
  *	if the end time is equal to the start time, it is a range of 24 hours
  *
- *  since no range can span more than 24 hours, the convention when putting such ranges 
- *  into the DB should be to simply make as many ranges as necessary to cover the desired range, 
- *  and make the end time the same as the start in consecutive ranges. 
+ *  since no Range can span more than 24 hours, the per day views split longer stretches 
+ *  into consecutive 24 hour ranges (the end time the same as the start), and the same 
+ *  convention should be used when putting such ranges into the DB. 
  */
 public class RestaurantHours {
 	
-	// array of 7 arrays (one for each day), each of which contains the ranges that the Restaurant is 
-	// open for that day
-	private ArrayList<ArrayList<Range>> _openRanges;
+	private static final int MINUTES_PER_DAY = HoursIndex.MINUTES_PER_DAY;
+	private static final int MINUTES_PER_WEEK = HoursIndex.MINUTES_PER_WEEK;
+	// starts are below 2^14, and are radix sorted 7 bits at a time
+	private static final int RADIX_BITS = 7;
+	private static final int RADIX = 1 << RADIX_BITS;
+	private static final int [] NONE = new int[0];
+	private static final HoursOverride [] NO_OVERRIDES = new HoursOverride[0];
+	private static final Comparator<HoursOverride> BY_FIRST_DAY = new Comparator<HoursOverride>() {
+		public int compare(HoursOverride a, HoursOverride b) {
+			return a.getFirstDay() < b.getFirstDay() ? -1 : (a.getFirstDay() == b.getFirstDay() ? 0 : 1);
+		}
+	};
+	
+	/** Version written at the start of encode()'s output */
+	public static final byte ENCODING_VERSION = 1;
+	
+	// sorted, merged [start, end) pairs of minutes of the week, see the class comment
+	private int [] _intervals = NONE;
+	
+	// pairs added since _intervals was last built, in the order they were added
+	// (only the first _pendingLength entries are used)
+	private int [] _pending;
+	private int _pendingLength;
+	
+	// compiled form of _intervals used to answer open/close queries, 
+	// null until first needed after the ranges are changed
+	private HoursIndex _index;
+	
+	// date specific hours, sorted by first day and not overlapping
+	private HoursOverride [] _overrides = NO_OVERRIDES;
 	
-	// default constructor initializes the array and each of its elements
-	public RestaurantHours () {
-		_openRanges = new ArrayList<ArrayList<Range>>();
-		_openRanges.ensureCapacity(7);
-		for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
-			_openRanges.add(new ArrayList<Range>());
+	// the hours in effect around a date, see effectiveOn(int), null until first needed 
+	// after the hours or overrides are changed
+	private volatile Effective _effective;
+	
+	// the date and the hours in effect around it, replaced whole so that a reader on another 
+	// thread never pairs the date of one with the hours of another
+	private static final class Effective {
+		private final int _date;
+		private final RestaurantHours _hours;
+		
+		private Effective(int date, RestaurantHours hours) {
+			_date = date;
+			_hours = hours;
 		}
 	}
+	
+	public RestaurantHours () {}
+	
+	// builds from an array of up to 7 arrays (one for each day, indexed by calendar day - 1)
 	public RestaurantHours (ArrayList<ArrayList<Range>> hours) {
-		_openRanges = hours;
-		for (int i = Calendar.SUNDAY; i<=Calendar.SATURDAY; i++) {
-			if (i - Calendar.SUNDAY>_openRanges.size())
-				// if hours didnt have the correct number of days
-				_openRanges.add(new ArrayList<Range>());
-			sortAndMerge(i);
+		for (int day = 0; day < hours.size() && day < 7; day++) {
+			ArrayList<Range> ranges = hours.get(day);
+			for (int i = 0; i < ranges.size(); i++)
+				addRange(day + Calendar.SUNDAY, ranges.get(i));
 		}
 	}
 	
+	// builds from the first length entries of pairs, [start, end) minutes of the week 
+	// in any order and possibly overlapping, in time linear in the number of pairs
+	public RestaurantHours (int [] pairs, int length) {
+		for (int i = 0; i + 1 < length; i += 2)
+			addInterval(pairs[i], pairs[i+1]);
+	}
+	
 	// returns an ArrayList of ranges for the indicated day, 
 	// as defined by the Calendar class
 	// may return ranges which overlap (occurs when the previous 
 	// night's range is over 24 hours long)
-	@SuppressWarnings("unchecked")
 	public ArrayList<Range> getRanges(int calendarDay) {
-		ArrayList<Range> ranges = (ArrayList<Range>)_openRanges.get(calendarDay-1).clone();
-		ArrayList<Range> yesterdayRanges = _openRanges.get((calendarDay - 2 + 7) % 7);
+		ArrayList<Range> ranges = getDayRanges(calendarDay);
+		ArrayList<Range> yesterdayRanges = getDayRanges((calendarDay - Calendar.SUNDAY + 6) % 7 + Calendar.SUNDAY);
 		if (!yesterdayRanges.isEmpty()) {
 			Range lastYesterday = yesterdayRanges.get(yesterdayRanges.size()-1);
 			if (lastYesterday.overnight() && !lastYesterday.getEnd().equals(Time.beginning))
@@ -55,215 +102,516 @@ public class RestaurantHours {
 		return ranges;
 	}
 	
-	public ArrayList<Range> getRangesToModify(int calendarDay) {
-		return _openRanges.get(calendarDay - 1);
+	// returns the ranges starting on the indicated day, as they would be entered a day at a time
+	// (stretches longer than 24 hours come out as consecutive 24 hour ranges). The list is 
+	// built from the stored hours, so changing it changes nothing, use setRanges() for that
+	public ArrayList<Range> getDayRanges(int calendarDay) {
+		int [] intervals = getIntervals();
+		int dayStart = (calendarDay - Calendar.SUNDAY) * MINUTES_PER_DAY;
+		ArrayList<Range> ranges = new ArrayList<Range>(4);
+		int last = intervals.length - 2;
+		// only the last pair can run into the next week, and if it does it is open 
+		// at the start of the day, so its part comes first
+		if (last >= 0 && intervals[last+1] > MINUTES_PER_WEEK)
+			addPieces(ranges, intervals[last], intervals[last+1], dayStart + MINUTES_PER_WEEK);
+		for (int i = 0; i <= last; i += 2)
+			addPieces(ranges, intervals[i], intervals[i+1], dayStart);
+		return ranges;
+	}
+	
+	// adds the 24 hour (or shorter, for the last) pieces of [start, end) which start 
+	// within the day beginning at dayStart
+	private static void addPieces(ArrayList<Range> ranges, int start, int end, int dayStart) {
+		int piece = start;
+		if (piece < dayStart)
+			piece += (dayStart - start + MINUTES_PER_DAY - 1) / MINUTES_PER_DAY * MINUTES_PER_DAY;
+		for (; piece < end && piece < dayStart + MINUTES_PER_DAY; piece += MINUTES_PER_DAY) 
+			ranges.add(new Range(timeOfDay(piece), timeOfDay(Math.min(piece + MINUTES_PER_DAY, end))));
 	}
 	
-	// sets the ArrayList of ranges for a particular day
+	// sets the ArrayList of ranges for a particular day, replacing the ranges which start on it
 	public void setRanges(int calendarDay, ArrayList<Range> ranges) {
-		_openRanges.set(calendarDay-1, ranges);
-		sortAndMerge(calendarDay);
+		ArrayList<ArrayList<Range>> week = new ArrayList<ArrayList<Range>>(7);
+		for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++)
+			week.add(day == calendarDay ? ranges : getDayRanges(day));
+		_intervals = NONE;
+		_pending = null;
+		_pendingLength = 0;
+		for (int day = 0; day < 7; day++) {
+			ArrayList<Range> dayRanges = week.get(day);
+			for (int i = 0; i < dayRanges.size(); i++)
+				addRange(day + Calendar.SUNDAY, dayRanges.get(i));
+		}
+	}
+	
+	// returns the sorted, merged [start, end) pairs of minutes of the week, see the class comment. 
+	// The array is shared, and must not be modified
+	public int [] getIntervals() {
+		if (_pendingLength > 0)
+			build();
+		return _intervals;
 	}
 	
-	// adds a range to a particular day in sorted order, concatenating with currently
-	// existing ranges if necessary
+	/**
+	 * Builds now what is otherwise built when first asked for, the merged intervals and the 
+	 * index, of these hours and of the overrides. Hours shared between threads, as in the 
+	 * restaurant cache, are settled before they are shared, and from then on only read
+	 * @return these hours
+	 */
+	public RestaurantHours settle() {
+		getIndex();
+		for (int i = 0; i < _overrides.length; i++)
+			_overrides[i].getHours().settle();
+		return this;
+	}
+	
+	// returns the compiled hours, building them if the ranges have changed
+	public HoursIndex getIndex() {
+		if (_index == null)
+			_index = HoursIndex.compile(getIntervals());
+		return _index;
+	}
+	
+	// adds a range to a particular day, merging with currently existing ranges if necessary
 	public void addRange(int calendarDay, Range newRange) {
-		ArrayList<Range> ranges = getRangesToModify(calendarDay);
-		for (int i = ranges.size(); i>0; i--) {
-			if (newRange.after(ranges.get(i-1))) {
-				ranges.add(i,newRange);
-				return;
+		int start = newRange.getStart().totalMinutes();
+		int length = (newRange.getEnd().totalMinutes() - start + MINUTES_PER_DAY) % MINUTES_PER_DAY;
+		if (length == 0)
+			length = MINUTES_PER_DAY; // start == end is a 24 hour range
+		start += (calendarDay - Calendar.SUNDAY) * MINUTES_PER_DAY;
+		addInterval(start, start + length);
+	}
+	
+	// adds [start, end) in minutes of the week, start may be outside of the week (it is wrapped), 
+	// and anything longer than a week is taken as always open. 
+	// Added pairs are sorted and merged together at the next read
+	public void addInterval(int start, int end) {
+		if (end <= start)
+			throw new RuntimeException("addInterval(int, int): end must be after start");
+		int wrapped = ((start % MINUTES_PER_WEEK) + MINUTES_PER_WEEK) % MINUTES_PER_WEEK;
+		end = wrapped + Math.min(end - start, MINUTES_PER_WEEK);
+		if (_pending == null)
+			_pending = new int[16];
+		else if (_pendingLength == _pending.length) {
+			int [] bigger = new int[_pendingLength * 2];
+			System.arraycopy(_pending, 0, bigger, 0, _pendingLength);
+			_pending = bigger;
+		}
+		_pending[_pendingLength++] = wrapped;
+		_pending[_pendingLength++] = end;
+		_index = null;
+		_effective = null;
+	}
+	
+	// returns the index in getIntervals() of the start of the pair containing the minute of the 
+	// week, -1 if closed then. Binary search, so O(log n) in the number of pairs
+	public int findInterval(int minuteOfWeek) {
+		int [] intervals = getIntervals();
+		int low = 0;
+		int high = intervals.length / 2 - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (intervals[mid * 2] <= minuteOfWeek)
+				low = mid + 1;
+			else high = mid - 1;
+		}
+		// high is now the last pair starting at or before the minute
+		if (high >= 0 && minuteOfWeek < intervals[high * 2 + 1])
+			return high * 2;
+		int last = intervals.length - 2;
+		if (last >= 0 && minuteOfWeek + MINUTES_PER_WEEK < intervals[last + 1])
+			return last;
+		return -1;
+	}
+	
+	/**
+	 * Replaces the date specific hours
+	 * @param overrides
+	 * 	the overrides, in any order, but no two may apply on the same date
+	 */
+	public void setOverrides(ArrayList<HoursOverride> overrides) {
+		HoursOverride [] sorted = overrides.toArray(new HoursOverride[overrides.size()]);
+		Arrays.sort(sorted, BY_FIRST_DAY);
+		for (int i = 1; i < sorted.length; i++)
+			if (sorted[i].getFirstDay() <= sorted[i - 1].getLastDay())
+				throw new RuntimeException("setOverrides(ArrayList<HoursOverride>): overrides " 
+						+ sorted[i - 1] + " and " + sorted[i] + " overlap");
+		_overrides = sorted.length == 0 ? NO_OVERRIDES : sorted;
+		_effective = null;
+	}
+	
+	/**
+	 * Returns a copy of these hours with other date specific hours, leaving these as they are
+	 * @param overrides
+	 * 	the overrides, as for setOverrides()
+	 */
+	public RestaurantHours withOverrides(ArrayList<HoursOverride> overrides) {
+		int [] intervals = getIntervals();
+		RestaurantHours out = new RestaurantHours(intervals, intervals.length);
+		out.setOverrides(overrides);
+		return out;
+	}
+	
+	// returns the date specific hours, sorted by first day
+	public ArrayList<HoursOverride> getOverrides() {
+		return new ArrayList<HoursOverride>(Arrays.asList(_overrides));
+	}
+	
+	// returns the override which applies on the date (a day number), null if none does
+	public HoursOverride getOverride(int date) {
+		int i = firstEndingFrom(date);
+		if (i < _overrides.length && _overrides[i].covers(date))
+			return _overrides[i];
+		return null;
+	}
+	
+	// returns the hours in effect around the snapshot's date (see effectiveOn(int)), 
+	// or these hours if the snapshot has no date
+	public RestaurantHours effectiveOn(NowSnapshot now) {
+		if (_overrides.length == 0 || !now.hasDate())
+			return this;
+		return effectiveOn(now.getDate());
+	}
+	
+	/**
+	 * Returns weekly hours which are right from the day before the date until five days after it: 
+	 * these hours, with the overrides applying on those dates put in place of the days they cover.
+	 * The result for the last date asked about is kept, so asking again on the same day is free
+	 * @param date
+	 * 	the day number of the date
+	 * @return the hours in effect, these hours if no override applies near the date
+	 */
+	public RestaurantHours effectiveOn(int date) {
+		if (_overrides.length == 0)
+			return this;
+		Effective memo = _effective;
+		if (memo != null && memo._date == date)
+			return memo._hours;
+		
+		RestaurantHours effective = this;
+		int i = firstEndingFrom(date - 1);
+		if (i < _overrides.length && _overrides[i].overlaps(date - 1, date + 5)) {
+			effective = new RestaurantHours();
+			for (int d = date - 1; d <= date + 5; d++) {
+				HoursOverride override = getOverride(d);
+				RestaurantHours source = override == null ? this : override.getHours();
+				int day = NowSnapshot.dayOfWeek(d);
+				ArrayList<Range> ranges = source.getDayRanges(day);
+				for (int r = 0; r < ranges.size(); r++)
+					effective.addRange(day, ranges.get(r));
 			}
-			if (ranges.get(i-1).overlap(newRange)) {
-				ranges.get(i-1).concat(newRange);
-				mergeAll(ranges);
-				return;
-			}				
 		}
-		ranges.add(0,newRange);
+		// settled before it is shared through the memo
+		_effective = new Effective(date, effective.settle());
+		return effective;
+	}
+	
+	// returns the index of the first override whose last day is on or after the date, 
+	// found by binary search (overrides don't overlap, so last days are sorted too)
+	private int firstEndingFrom(int date) {
+		int low = 0;
+		int high = _overrides.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (_overrides[mid].getLastDay() < date)
+				low = mid + 1;
+			else high = mid;
+		}
+		return low;
 	}
 	
-	// returns the number of ranges in the day
+	// returns the number of ranges starting on the day
 	public int getRangeCount(int calendarDay) {
-		return getRangesToModify(calendarDay).size();
+		return getDayRanges(calendarDay).size();
+	}
+	
+	// sorts the pending pairs in with the built ones and merges them
+	private void build() {
+		int length = _intervals.length + _pendingLength;
+		int [] pairs = new int[length];
+		System.arraycopy(_intervals, 0, pairs, 0, _intervals.length);
+		System.arraycopy(_pending, 0, pairs, _intervals.length, _pendingLength);
+		_intervals = merge(pairs, length);
+		_pending = null;
+		_pendingLength = 0;
+		_index = null;
+	}
+	
+	// sorts [start, end) pairs by start and merges overlapping and back to back pairs, 
+	// including across the end of the week. Starts must be within the week. 
+	// Linear in the number of pairs, pairs is used as scratch space
+	private static int [] merge(int [] pairs, int length) {
+		if (length < 2)
+			return NONE;
+		// least significant digit radix sort on the starts, an even number of passes 
+		// leaves the sorted pairs back in pairs
+		int [] from = pairs;
+		int [] to = new int[length];
+		int [] counts = new int[RADIX + 1];
+		for (int shift = 0; shift < 2 * RADIX_BITS; shift += RADIX_BITS) {
+			for (int b = 0; b <= RADIX; b++)
+				counts[b] = 0;
+			for (int i = 0; i < length; i += 2)
+				counts[((from[i] >> shift) & (RADIX - 1)) + 1]++;
+			for (int b = 0; b < RADIX; b++)
+				counts[b + 1] += counts[b];
+			for (int i = 0; i < length; i += 2) {
+				int j = 2 * counts[(from[i] >> shift) & (RADIX - 1)]++;
+				to[j] = from[i];
+				to[j + 1] = from[i + 1];
+			}
+			int [] swap = from;
+			from = to;
+			to = swap;
+		}
+		
+		int out = 2;
+		for (int i = 2; i < length; i += 2) {
+			if (from[i] <= from[out - 1]) {
+				if (from[i + 1] > from[out - 1])
+					from[out - 1] = from[i + 1];
+			} else {
+				from[out++] = from[i];
+				from[out++] = from[i + 1];
+			}
+		}
+		// the last pair may run past the end of the week into the first ones
+		int first = 0;
+		while (first < out - 2 && from[out - 1] >= from[first] + MINUTES_PER_WEEK) {
+			from[out - 1] = Math.max(from[out - 1], from[first + 1] + MINUTES_PER_WEEK);
+			first += 2;
+		}
+		if (from[out - 1] - from[out - 2] >= MINUTES_PER_WEEK)
+			return new int [] {0, MINUTES_PER_WEEK}; // always open
+		int [] merged = new int[out - first];
+		System.arraycopy(from, first, merged, 0, out - first);
+		return merged;
+	}
+	
+	/**
+	 * Encodes the whole week into bytes, decode with decode(). The format is a version byte 
+	 * (ENCODING_VERSION), a unit in minutes that every other number is a multiple of, the number 
+	 * of pairs, then for each pair the time from the end of the last pair (the start of the week 
+	 * for the first) to its start, and its length, in units. Every number is an unsigned varint 
+	 * (7 bits a byte, low bits first, high bit set when more bytes follow), so with hours on the 
+	 * quarter or half hour a pair usually takes 2 bytes, and there is no limit on the number 
+	 * of ranges in a day
+	 * @return the encoded hours
+	 */
+	public byte [] encode() {
+		int [] intervals = getIntervals();
+		int unit = 0;
+		int last = 0;
+		for (int i = 0; i < intervals.length; i += 2) {
+			unit = gcd(unit, gcd(intervals[i] - last, intervals[i + 1] - intervals[i]));
+			last = intervals[i + 1];
+		}
+		if (unit == 0)
+			unit = 1;
+		int size = 1 + varintSize(unit) + varintSize(intervals.length / 2);
+		last = 0;
+		for (int i = 0; i < intervals.length; i += 2) {
+			size += varintSize((intervals[i] - last) / unit) + varintSize((intervals[i + 1] - intervals[i]) / unit);
+			last = intervals[i + 1];
+		}
+		byte [] out = new byte[size];
+		out[0] = ENCODING_VERSION;
+		int pos = writeVarint(out, 1, unit);
+		pos = writeVarint(out, pos, intervals.length / 2);
+		last = 0;
+		for (int i = 0; i < intervals.length; i += 2) {
+			pos = writeVarint(out, pos, (intervals[i] - last) / unit);
+			pos = writeVarint(out, pos, (intervals[i + 1] - intervals[i]) / unit);
+			last = intervals[i + 1];
+		}
+		return out;
+	}
+	
+	/**
+	 * Decodes hours encoded with encode() straight into the interval array
+	 * @param encoded
+	 * 	the bytes returned by encode()
+	 * @return the decoded hours
+	 */
+	public static RestaurantHours decode(byte [] encoded) {
+		if (encoded == null || encoded.length == 0)
+			throw new RuntimeException("decode(byte[]): no hours to decode");
+		if (encoded[0] != ENCODING_VERSION)
+			throw new RuntimeException("decode(byte[]): unknown hours encoding version " + encoded[0]);
+		int [] pos = {1};
+		int unit = readVarint(encoded, pos);
+		int count = readVarint(encoded, pos);
+		// each pair takes at least two bytes, a larger count is corrupt or cut short
+		if (count < 0 || count > (encoded.length - pos[0]) / 2)
+			throw new RuntimeException("decode(byte[]): malformed hours, " + count 
+					+ " intervals in " + (encoded.length - pos[0]) + " bytes");
+		int [] pairs = new int[count * 2];
+		// pairs written by encode() are already sorted and merged, anything else is merged here
+		boolean merged = true;
+		int last = 0;
+		for (int i = 0; i < pairs.length; i += 2) {
+			int gap = readVarint(encoded, pos) * unit;
+			int length = readVarint(encoded, pos) * unit;
+			pairs[i] = last + gap;
+			pairs[i + 1] = pairs[i] + length;
+			last = pairs[i + 1];
+			if ((gap == 0 && i > 0) || length == 0 || length > MINUTES_PER_WEEK || pairs[i] >= MINUTES_PER_WEEK)
+				merged = false;
+		}
+		if (pairs.length > 2 && pairs[pairs.length - 1] >= pairs[0] + MINUTES_PER_WEEK)
+			merged = false;
+		if (!merged)
+			return new RestaurantHours(pairs, pairs.length);
+		RestaurantHours hours = new RestaurantHours();
+		hours._intervals = pairs.length == 0 ? NONE : pairs;
+		return hours;
+	}
+	
+	private static int gcd(int a, int b) {
+		while (b != 0) {
+			int t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+	
+	// returns the number of bytes writeVarint() uses for value
+	private static int varintSize(int value) {
+		int size = 1;
+		while ((value >>>= 7) != 0)
+			size++;
+		return size;
+	}
+	
+	// writes value at pos, returns the position after it
+	private static int writeVarint(byte [] out, int pos, int value) {
+		while ((value & ~0x7f) != 0) {
+			out[pos++] = (byte)((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out[pos++] = (byte)value;
+		return pos;
+	}
+	
+	// reads the value at pos[0], and moves pos[0] past it
+	private static int readVarint(byte [] in, int [] pos) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			if (pos[0] >= in.length)
+				throw new RuntimeException("readVarint: encoded hours are truncated");
+			byte b = in[pos[0]++];
+			value |= (b & 0x7f) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new RuntimeException("readVarint: encoded hours are corrupt");
 	}
 	
 	// returns ArrayList of today's ranges
-	public ArrayList<Range> getTodayRanges() {
-		Calendar now = new GregorianCalendar();
-		return getRanges(now.get(Calendar.DAY_OF_WEEK));
+	public ArrayList<Range> getTodayRanges() 				{return getTodayRanges(Clock.snapshot());}
+	public ArrayList<Range> getTodayRanges(NowSnapshot now) {
+		return effectiveOn(now).getRanges(now.getDay());
 	}
 	
 	// returns the next range or the current range (from now), null if closed for the day
-	public Range getCurrentRange() {
-		ArrayList<Range> todayRanges = getTodayRanges();
-		Time now = new Time();
+	public Range getCurrentRange() 							{return getCurrentRange(Clock.snapshot());}
+	public Range getCurrentRange(NowSnapshot now) {
+		ArrayList<Range> todayRanges = getTodayRanges(now);
+		Time time = Time.valueOf(now);
 		for (int i = 0; i<todayRanges.size(); i++) 
-			if (!now.after(todayRanges.get(i)))
+			if (!time.after(todayRanges.get(i)))
 				return todayRanges.get(i);
 		return null;
 	}
 	
-	public int[] getCurrentRangeI() {
-		int today = new GregorianCalendar().get(Calendar.DAY_OF_WEEK);
-		Time now = new Time();
-		ArrayList<Range> todayRanges = getRangesToModify(today);
+	public int[] getCurrentRangeI() 						{return getCurrentRangeI(Clock.snapshot());}
+	public int[] getCurrentRangeI(NowSnapshot now) {
+		int today = now.getDay();
+		Time time = Time.valueOf(now);
+		ArrayList<Range> todayRanges = effectiveOn(now).getDayRanges(today);
 		for (int i = 0; i<todayRanges.size(); i++) 
-			if (!now.after(todayRanges.get(i))) 
+			if (!time.after(todayRanges.get(i))) 
 				return new int [] {today, i};
 		return new int [] {today, -1};
 	}
 	
+	// the query methods below without a NowSnapshot read the default Clock; when asking 
+	// about many restaurants, take one snapshot with Clock.snapshot() and pass it to each.
+	// They take any overrides applying on the snapshot's date into account
+	
 	// returns true if restaurant is open now
-	public boolean isOpen() {
-		Range current = getCurrentRange();
-		if (current != null)
-			return current.inRange(new Time());
-		return false;
+	public boolean isOpen() 								{return isOpen(Clock.snapshot());}
+	public boolean isOpen(NowSnapshot now) {
+		return effectiveOn(now).getIndex().isOpen(now.getMinuteOfWeek());
 	}
 	
 	// returns minutes to the next opening time for the restaurant, 0 if already open, -1 if closed for the day
-	public int minutesToOpen() {
-		Time now = new Time();
-		Range current = getCurrentRange();
-		if (current != null) {
-			int minutes = current.minutesUntilStart(now);
-			return minutes>0?minutes:0;
-		}
-		return -1;
+	public int minutesToOpen() 								{return minutesToOpen(Clock.snapshot());}
+	public int minutesToOpen(NowSnapshot now) {
+		int toOpen = effectiveOn(now).getIndex().minutesToOpen(now.getMinuteOfWeek());
+		if (toOpen < 0 || now.minutesLeftToday() <= toOpen)
+			return -1;
+		return toOpen;
 	}
 	
 	// returns minutes to the next closing time for the restaurant, 1440 if open over 24 hours, -1 if closed for the day
-	public int minutesToClose() {
-		Time now = new Time();
-		Range current = getCurrentRange();
-		if (current != null) {
-			if (current.overnight()) {
-				ArrayList<Range> tomorrow = getRangesToModify((new GregorianCalendar().
-						get(Calendar.DAY_OF_WEEK) + 1 - Calendar.SUNDAY) % 7 + Calendar.SUNDAY);
-				if (!tomorrow.isEmpty()) {
-					Range next = tomorrow.get(0);
-					if (!next.after(current.getEnd())) {
-						int min = current.minutesUntilEnd(now) + next.minutesUntilEnd(next.getStart());
-						return min>1440?1440:min;
-					}							
-				}
-			}
-			if (current.getStart().equals(Time.beginning)) {
-				ArrayList<Range> today = getTodayRanges();
-				if (today.size()>1) {
-					Range next = today.get(1);
-					if (!next.after(current)) { // they overlap
-						int min = current.minutesUntilEnd(now) + next.minutesUntilEnd(next.getStart());
-						return min>1440?1440:min;
-					}
-				}
-			}
-			return current.minutesUntilEnd(now);
-		}
-		return -1;
+	public int minutesToClose() 							{return minutesToClose(Clock.snapshot());}
+	public int minutesToClose(NowSnapshot now) {
+		HoursIndex index = effectiveOn(now).getIndex();
+		int toOpen = minutesToOpen(now);
+		if (toOpen < 0)
+			return -1;
+		int toClose = index.minutesToClose((now.getMinuteOfWeek() + toOpen) % HoursIndex.MINUTES_PER_WEEK);
+		if (toClose < 0 || toOpen + toClose > HoursIndex.MINUTES_PER_DAY)
+			return HoursIndex.MINUTES_PER_DAY;
+		return toOpen + toClose;
 	}	
 	
 	// returns the next open time, and null if closed for the day
-	// pre: restaurant is closed
-	public Time getNextOpenTime() {
-		Range current = getCurrentRange();
-		if (current != null)
-			return current.getStart();
-		return null;
+	// if already open, returns the time the restaurant opened
+	public Time getNextOpenTime() 							{return getNextOpenTime(Clock.snapshot());}
+	public Time getNextOpenTime(NowSnapshot now) {
+		HoursIndex index = effectiveOn(now).getIndex();
+		int minute = now.getMinuteOfWeek();
+		if (index.isOpen(minute)) {
+			int opened = index.lastChange(minute);
+			if (opened == Integer.MIN_VALUE || opened <= minute - HoursIndex.MINUTES_PER_DAY)
+				return Time.beginning;
+			return timeOfDay(opened);
+		}
+		int toOpen = minutesToOpen(now);
+		if (toOpen < 0)
+			return null;
+		return timeOfDay(minute + toOpen);
 	}
 	
 	// pre: restaurant is open, and returns null if open
 	// more than 24 hours from now
-	public Time getNextCloseTime() {
-		Range current = getCurrentRange();
-		if (current == null) 
+	public Time getNextCloseTime() 							{return getNextCloseTime(Clock.snapshot());}
+	public Time getNextCloseTime(NowSnapshot now) {
+		int toClose = minutesToClose(now);
+		if (toClose < 0) 
 			throw new RuntimeException("Restaurant must be open");
-		if (current.overnight()) {
-			ArrayList<Range> tomorrow = getRangesToModify((new GregorianCalendar().
-					get(Calendar.DAY_OF_WEEK) + 1 - Calendar.SUNDAY) % 7 + Calendar.SUNDAY);
-			if (!tomorrow.isEmpty()) {
-				Range next = tomorrow.get(0);
-				if (!next.after(current.getEnd())) {
-					Time now = new Time();
-					if (!next.overnight() && !next.getEnd().after(now))
-						return next.getEnd();
-					else 
-						return null;
-				}							
-			}
-		}
-		if (current.getStart().equals(Time.beginning)) {
-			ArrayList<Range> today = getTodayRanges();
-			if (today.size()>1) {
-				Range next = today.get(1);
-				Time now = new Time();
-				if (!next.after(current)) // they overlap
-					if (!next.overnight() || !next.getEnd().after(now))
-						return next.getEnd();
-					else
-						return null;
-			}
-		} 
-		return current.getEnd();
-//		if (current != null) 
-//			return current.getEnd();
-//		return null;
-	}
-	
-	// puts the ranges for a particular day in the correct order, and merges overlapping ranges
-	public void sortAndMerge(int calendarDay) {
-		ArrayList<Range> ranges = getRangesToModify(calendarDay);
-		quickSort(ranges, 0, ranges.size()-1);
-		mergeAll(ranges);
-	}
-	
-	// implementation of quicksort
-	private void quickSort(ArrayList<Range> toSort, int start, int end) {
-		if (end<=start)
-			return;
-		int first=start;
-		int pivotIndex = end--;
-		for (;start<end;) {
-			if (!toSort.get(start).after(toSort.get(pivotIndex)))
-				// the comparison step, sorts in !after order, lol
-				start++;
-			else
-				swap(toSort, start, end--);
-		}
-		if (toSort.get(start).before(toSort.get(pivotIndex))) 
-				swap(toSort, ++start, pivotIndex);
-		else swap(toSort, start, pivotIndex);
-		
-		quickSort(toSort, first, start-1);
-		quickSort(toSort, start+1, pivotIndex);
-		
-	}
-	
-	// swaps elements in an ArrayList<Range> array
-	private void swap(ArrayList<Range> toSwap, int first, int second) {
-		Range temp = toSwap.get(second);
-		toSwap.set(second, toSwap.get(first));
-		toSwap.set(first, temp);
+		if (toClose >= HoursIndex.MINUTES_PER_DAY)
+			return null;
+		return timeOfDay(now.getMinuteOfWeek() + toClose);
 	}
 	
-	// merges all overlapping Ranges
-	private void mergeAll(ArrayList<Range> ranges) {
-		for (int i = ranges.size()-2;i>=0;i--) {
-			if (ranges.get(i).overlap(ranges.get(i+1))) {
-				ranges.get(i).concat(ranges.remove(i+1));
-			}
-		}
+	// returns the time of day for any (possibly unwrapped) minute of the week
+	private static Time timeOfDay(int minuteOfWeek) {
+		int minute = ((minuteOfWeek % HoursIndex.MINUTES_PER_DAY) + HoursIndex.MINUTES_PER_DAY) % HoursIndex.MINUTES_PER_DAY;
+		return Time.ofMinuteOfDay(minute);
 	}
 	
 	public String toString() {
-		return toString(Main.display24);
+		return toString(Time.display24);
 	}
 	
 	public String toString(boolean display24) {
 		StringBuilder out = new StringBuilder();
 		for (int i = Calendar.SUNDAY; i <= Calendar.SATURDAY; i++) {
-			ArrayList<Range> ranges = getRangesToModify(i);
+			ArrayList<Range> ranges = getDayRanges(i);
 			switch (i) {
 			case Calendar.SUNDAY:
 				out.append("S\t");
@@ -296,8 +644,9 @@ public class RestaurantHours {
 	}
 	
 	// flattens a days ranges into at most 64 bits (21*3 + 1)
+	// this is the format of the per day hour columns used up to DB version 7, use encode() instead
 	public long flatten(int calendarDay) {
-		ArrayList<Range> day = getRangesToModify(calendarDay);
+		ArrayList<Range> day = getDayRanges(calendarDay);
 		long out;
 		switch (day.size()) {
 		case 0: case 1: case 2:
@@ -340,11 +689,11 @@ public class RestaurantHours {
 				current /= 24;
 				min = (int)current % 60;
 				current /= 60;
-				currentR.setStart(new Time(hr, min));
+				currentR.setStart(Time.valueOf(hr, min));
 				hr = (int) current % 24;
 				current /= 24;
 				min = (int)current % 60;
-				Time end = new Time(hr, min);
+				Time end = Time.valueOf(hr, min);
 				currentR.setEnd(end);
 				out.add(currentR);
 				flattenedDay = flattenedDay >> 21; 
@@ -357,12 +706,12 @@ public class RestaurantHours {
 				flattenedDay = flattenedDay >> 5;
 				min = ((int)flattenedDay & 0x3f);
 				flattenedDay = flattenedDay >> 6;
-				currentR.setStart(new Time(hr, min));
+				currentR.setStart(Time.valueOf(hr, min));
 				hr = ((int)flattenedDay & 0x1f);
 				flattenedDay = flattenedDay >> 5;
 				min = ((int)flattenedDay & 0x3f);
 				flattenedDay = flattenedDay >> 6;
-				Time end = new Time(hr, min);
+				Time end = Time.valueOf(hr, min);
 				currentR.setEnd(end);
 				out.add(currentR);
 			}
@@ -1,30 +1,65 @@
 package edu.vanderbilt.vuphone.android.objects;
 
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The menu of a restaurant. A menu read from the database (decode()) keeps its encoded
+ * bytes and is only decoded when asked for its items, so loading the details of a
+ * restaurant costs a byte array copy whatever the menu's length. iterator() walks the
+ * encoded items one at a time, decoding each string the first time it is reached, for
+ * long menus that are only shown a screen at a time. getItems() decodes them all, once,
+ * and from then on the menu is kept as that list, as one built item by item (addItem(), or
+ * the list it was made with) is; either way the list is the menu's own, and editing it edits
+ * the menu. Reading a menu can be done from any thread, as the menus in the restaurant cache
+ * are, the lazy state being kept under the menu's lock; a menu in the cache is not to be
+ * changed.
+ *
+ * Encoding (ENCODING_VERSION), every count, length and index a varint (7 bits a byte,
+ * low bits first, high bit set on every byte but the last):
+ * 	version byte, number of strings, number of items
+ * 	the string table: the length of each string in UTF-8 bytes, then its bytes
+ * 	each item: the index of its name, then of its description, in the table plus one, 0 for null
+ * Names and descriptions repeated across items, as on dining hall menus, are stored once.
+ */
+public class RestaurantMenu implements Iterable<RestaurantMenu.MenuItem> {
+
+	public static final byte ENCODING_VERSION = 1;
+
+	// the String object and char array header of a decoded string, and the MenuItem object
+	// and its list slot, roughly, in bytes
+	private static final int STRING_OVERHEAD = 40;
+	private static final int ITEM_OVERHEAD = 20;
 
-public class RestaurantMenu {
-	
 	private ArrayList<MenuItem> _items;
-	
+
+	// the encoding the menu was read from, until addItem() or setItems()
+	private byte [] _encoded;
+	private Encoded _decoder;
+
 
 	public static class MenuItem {
 		private String _name;
 		private String _description;
 		// nutrition facts data in the future
-		
+
 		public MenuItem() {
 			this("", "");
 		}
-		
+
 		public MenuItem(String name) {
 			this(name, "");
 		}
-		
+
 		public MenuItem(String name, String description) {
 			_name = name;
 			_description = description;
 		}
-		
+
 		public String getName() {
 			return _name;
 		}
@@ -32,41 +67,295 @@ public class RestaurantMenu {
 		public String getDescription() {
 			return _description;
 		}
-		
+
 		// The mutator methods allows public modify access, maybe shouldnt
 		// to be consistent with the rest of Restaurant mutator methods.
 		public void setName(String name) {
 			_name = name;
 		}
-		
+
 		public void setDescription(String description) {
 			_description = description;
 		}
 	}
-	
+
 	public RestaurantMenu() {
-		this(null);
+		setItems(null);
 	}
-	
+
 	public RestaurantMenu(ArrayList<MenuItem> items) {
 		setItems(items);
 	}
-	
+
+	// a menu to be decoded from the bytes when its items are asked for
+	private RestaurantMenu(byte [] encoded) {
+		_encoded = encoded;
+	}
+
 	public boolean hasItems() {
-		return !_items.isEmpty();
+		return size() > 0;
 	}
-	
-	public ArrayList<MenuItem> getItems() {
-		return _items;
+
+	// returns the number of items, from the header of a menu not yet decoded
+	public synchronized int size() {
+		if (_items != null)
+			return _items.size();
+		int [] position = {1};
+		readVarint(_encoded, position); // the number of strings
+		return readVarint(_encoded, position);
+	}
+
+	// returns roughly how many bytes the menu holds in memory. Until decoded, from the header
+	// alone: the encoding, the decoder's arrays (three words a string, one an item) and every
+	// string as if already read, STRING_OVERHEAD plus two bytes a char, which is no more than
+	// twice its UTF-8 length, and so twice the encoding for all of them. Once decoded, each
+	// item and its strings
+	public synchronized int memorySize() {
+		if (_items == null) {
+			int [] position = {1};
+			int strings = readVarint(_encoded, position);
+			int items = readVarint(_encoded, position);
+			return 3 * _encoded.length + 4 * (3 * strings + items) + strings * STRING_OVERHEAD;
+		}
+		int size = 0;
+		for (int i = 0; i < _items.size(); i++) {
+			MenuItem item = _items.get(i);
+			size += ITEM_OVERHEAD + stringSize(item.getName()) + stringSize(item.getDescription());
+		}
+		return size;
+	}
+
+	private static int stringSize(String s) {
+		return s == null ? 0 : STRING_OVERHEAD + 2 * s.length();
+	}
+
+	/**
+	 * Returns every item, the menu's own list: changing it changes the menu. A menu read
+	 * from the database is decoded the first time, and kept as the list from then on
+	 */
+	public synchronized ArrayList<MenuItem> getItems() {
+		if (_items != null)
+			return _items;
+		Encoded decoder = decoder();
+		ArrayList<MenuItem> items = new ArrayList<MenuItem>(decoder._itemCount);
+		for (int i = 0; i < decoder._itemCount; i++)
+			items.add(decoder.item(i));
+		_items = items;
+		_encoded = null;
+		_decoder = null;
+		return items;
 	}
-	
-	public void setItems(ArrayList<MenuItem> items) {
+
+	public synchronized void setItems(ArrayList<MenuItem> items) {
 		if (items == null)
 			_items = new ArrayList<MenuItem>();
 		else _items = items;
+		_encoded = null;
+		_decoder = null;
+	}
+
+	// adds an item, a menu read from the database is decoded first and then kept as a list
+	public synchronized void addItem(MenuItem item) {
+		getItems().add(item);
 	}
-	
-	public void addItem(MenuItem item) {
-		_items.add(item);
+
+	/**
+	 * Walks the items in order. On a menu not yet decoded each item is decoded as it is
+	 * reached, and nothing is kept but the strings, so the whole list is never built
+	 */
+	public synchronized Iterator<MenuItem> iterator() {
+		if (_items != null)
+			return _items.iterator();
+		final Encoded decoder = decoder();
+		return new Iterator<MenuItem>() {
+			private int _next;
+
+			public boolean hasNext() {
+				return _next < decoder._itemCount;
+			}
+
+			public MenuItem next() {
+				if (_next >= decoder._itemCount)
+					throw new NoSuchElementException();
+				return decoder.item(_next++);
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException("RestaurantMenu iterators are read only");
+			}
+		};
+	}
+
+	/**
+	 * Encodes the menu into bytes, decode with decode(). A menu that was decoded and not
+	 * changed since returns the bytes it was decoded from
+	 * @return the encoded menu, see the class comment
+	 */
+	public synchronized byte [] encode() {
+		if (_encoded != null)
+			return _encoded;
+		ArrayList<MenuItem> items = _items;
+		HashMap<String, Integer> indexes = new HashMap<String, Integer>(items.size() * 2);
+		ArrayList<String> strings = new ArrayList<String>(items.size() * 2);
+		int [] refs = new int[items.size() * 2];
+		for (int i = 0; i < items.size(); i++) {
+			refs[i * 2] = intern(items.get(i).getName(), indexes, strings);
+			refs[i * 2 + 1] = intern(items.get(i).getDescription(), indexes, strings);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(32 * items.size() + 8);
+		out.write(ENCODING_VERSION);
+		writeVarint(out, strings.size());
+		writeVarint(out, items.size());
+		for (int i = 0; i < strings.size(); i++) {
+			byte [] utf8 = utf8(strings.get(i));
+			writeVarint(out, utf8.length);
+			out.write(utf8, 0, utf8.length);
+		}
+		for (int i = 0; i < refs.length; i++)
+			writeVarint(out, refs[i]);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Returns the menu encoded with encode(). Only the version is checked, the rest is
+	 * read when the items are asked for
+	 * @param encoded
+	 * 	the bytes returned by encode(), which the menu keeps and must not be changed
+	 * @return the menu
+	 */
+	public static RestaurantMenu decode(byte [] encoded) {
+		if (encoded == null || encoded.length == 0)
+			throw new RuntimeException("decode(byte[]): no menu to decode");
+		if (encoded[0] != ENCODING_VERSION)
+			throw new RuntimeException("decode(byte[]): unknown menu encoding version " + encoded[0]);
+		return new RestaurantMenu(encoded);
+	}
+
+	// called with the menu's lock held
+	private Encoded decoder() {
+		if (_decoder == null)
+			_decoder = new Encoded(_encoded);
+		return _decoder;
+	}
+
+	// returns the table index plus one of the string, adding it to the table if new, 0 for null
+	private static int intern(String s, HashMap<String, Integer> indexes, ArrayList<String> strings) {
+		if (s == null)
+			return 0;
+		Integer index = indexes.get(s);
+		if (index == null) {
+			strings.add(s);
+			index = strings.size();
+			indexes.put(s, index);
+		}
+		return index;
+	}
+
+	// reads the varint at position[0], and moves position[0] past it
+	private static int readVarint(byte [] bytes, int [] position) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			if (position[0] >= bytes.length)
+				throw new RuntimeException("decode(byte[]): menu is truncated");
+			byte b = bytes[position[0]++];
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new RuntimeException("decode(byte[]): malformed menu");
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7f) != 0) {
+			out.write((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static byte [] utf8(String s) {
+		try {
+			return s.getBytes("UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new RuntimeException("UTF-8 not supported");
+		}
+	}
+
+	/**
+	 * Reads an encoded menu. Opening it reads the header and the string lengths, to
+	 * find where each string and item starts; each string is decoded when first asked for
+	 */
+	private static final class Encoded {
+		private final byte [] _bytes;
+		private final int _itemCount;
+		// where each string's bytes start, and how many there are
+		private final int [] _stringStart;
+		private final int [] _stringLength;
+		private final String [] _strings;
+		// where each item starts, filled in as items are reached
+		private final int [] _itemStart;
+		private int _itemsKnown;
+		private int _position;
+		private final int [] _cursor = new int[1];
+
+		private Encoded(byte [] bytes) {
+			_bytes = bytes;
+			_position = 1;
+			int stringCount = readVarint();
+			_itemCount = readVarint();
+			_stringStart = new int[stringCount];
+			_stringLength = new int[stringCount];
+			_strings = new String[stringCount];
+			for (int i = 0; i < stringCount; i++) {
+				_stringLength[i] = readVarint();
+				_stringStart[i] = _position;
+				_position += _stringLength[i];
+			}
+			if (_position > bytes.length)
+				throw new RuntimeException("decode(byte[]): menu is truncated");
+			_itemStart = new int[_itemCount];
+			if (_itemCount > 0)
+				_itemStart[0] = _position;
+			_itemsKnown = _itemCount > 0 ? 1 : 0;
+		}
+
+		// decodes the item with the index, in O(1) when reached in order
+		private synchronized MenuItem item(int i) {
+			while (_itemsKnown <= i) {
+				_position = _itemStart[_itemsKnown - 1];
+				readVarint();
+				readVarint();
+				_itemStart[_itemsKnown++] = _position;
+			}
+			_position = _itemStart[i];
+			String name = string(readVarint());
+			String description = string(readVarint());
+			return new MenuItem(name, description);
+		}
+
+		private String string(int ref) {
+			if (ref == 0)
+				return null;
+			int i = ref - 1;
+			if (i >= _strings.length)
+				throw new RuntimeException("decode(byte[]): menu item refers to string " + i
+						+ " of " + _strings.length);
+			if (_strings[i] == null) {
+				try {
+					_strings[i] = new String(_bytes, _stringStart[i], _stringLength[i], "UTF-8");
+				} catch (UnsupportedEncodingException e) {
+					throw new RuntimeException("UTF-8 not supported");
+				}
+			}
+			return _strings[i];
+		}
+
+		private int readVarint() {
+			_cursor[0] = _position;
+			int value = RestaurantMenu.readVarint(_bytes, _cursor);
+			_position = _cursor[0];
+			return value;
+		}
 	}
 }
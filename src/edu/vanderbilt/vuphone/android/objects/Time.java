@@ -1,118 +1,128 @@
 package edu.vanderbilt.vuphone.android.objects;
 
 import java.util.Calendar;
-import java.util.GregorianCalendar;
-
-import edu.vanderbilt.vuphone.android.dining.Main;
 
 
 /**
- * Stores a time in hours and minutes
+ * Stores a time in hours and minutes. Times are immutable, and there is exactly one 
+ * instance for each minute of the day, so get them with the valueOf() methods 
+ * (a table lookup) and compare them with == or equals() alike.
  * @author austin
  *
  */
-public class Time {
+public final class Time {
 	
-	public static Time beginning = new Time(0,0);
-	public static Time end = new Time(23,59);
-
-	// hour in 24 based time (0-23)
-	private int hour;
-	// minute in range 0-59
-	private int minute;
-	
-	
-	
-	
-	// constructors based on setTime methods defined below, and sets display
-	// mode to 12 hour format, default constructor sets to the current time
-	public Time() 				{Calendar now = new GregorianCalendar();
-								 setTime(now);}
-	public Time(int hr,int min) {setTime(hr,min);}
-	public Time(int hr) 		{setTime(hr);}
-	public Time(String time)	{setTime(time);}
-	public Time(Time time)		{setTime(time);}
-	public Time(Calendar c) 	{setTime(c);}
-	
-	
-	
-	
-	// sets hour to hr and minute to min checking for correctness
-	public void setTime(int hr, int min) {
-		setHour(hr);
-		setMinute(min);
-	}
-	// sets hour to hr and minute to 0 checking for correctness
-	public void setTime(int hr) {
-		setTime(hr,0);
-	}
-	// takes strings of format HH:MM, H:MM, HH, H. Sets hour and 
-	// minute accordingly checking for correctness
-	public void setTime(String time) {
-		int colonI = time.indexOf(':');
-		try {
-			if (colonI==-1) {
-				// parseInt throws the necessary exception if time has length 0, 
-				// and if time has length > 2, setHour prints the necessary error
-				setTime(Integer.parseInt(time),0);
-			} else { 
-				String MM = time.substring(colonI+1,time.length());
-				if (MM.length()!=2)
-					throw new NumberFormatException();
-				
-				setTime(Integer.parseInt(time.substring(0, colonI)),
-						Integer.parseInt(MM));
-			}
-		} 
-		catch (NumberFormatException e) {
-			throw new NumberFormatException("ERR: Invalid time format");
-		}
-	}
-	// sets the time contained in the referenced Time object
-	public void setTime(Time time) {
-		setTime(time.getHour(),time.getMinute());
-	}
-	public void setTime(Calendar c) {
-		setTime(c.get(Calendar.HOUR_OF_DAY), c.get(Calendar.MINUTE));
+	private static final int MINUTES_PER_DAY = 24 * 60;
+	
+	// the canonical instance for every minute of the day
+	private static final Time [] TIMES = new Time[MINUTES_PER_DAY];
+	static {
+		for (int m = 0; m < MINUTES_PER_DAY; m++)
+			TIMES[m] = new Time(m);
 	}
 	
+	public static final Time beginning = TIMES[0];
+	public static final Time end = TIMES[MINUTES_PER_DAY - 1];
+	
+	// the format toString() uses for times, ranges and hours, set from the device's 
+	// 12/24 hour setting by Main
+	public static boolean display24;
+
+	// minutes elapsed in the day (0-1439)
+	private final int minutes;
 	
+	// display strings, built the first time each is asked for
+	private String string12;
+	private String string24;
 	
-	// sets hour to hr, displaying an error and halting if outside the range 0-23
-	public void setHour(int hr) {
+	
+	private Time(int minuteOfDay) {
+		minutes = minuteOfDay;
+	}
+	
+	
+	// returns the time hr:min, checking for correctness
+	public static Time valueOf(int hr, int min) {
 		if (hr<0 || hr>23) {
 			throw new RuntimeException("Invalid hour set; must be in range 0-23");
 		}
-		hour = hr;
-	}
-	// sets minute to min, displaying an error and halting if outside the range 0-59
-	public void setMinute(int min) {
 		if (min<0 || min>59) {
 			throw new RuntimeException("Invalid minute set; must be in range (0-59)");
 		}
-		
-		minute = min;
+		return TIMES[hr * 60 + min];
+	}
+	// returns the time hr:00, checking for correctness
+	public static Time valueOf(int hr) {
+		return valueOf(hr, 0);
+	}
+	// takes strings of format HH:MM, H:MM, HH, H and returns the time they 
+	// indicate, checking for correctness
+	public static Time valueOf(String time) {
+		int length = time.length();
+		int hr = 0;
+		int i = 0;
+		for (; i < length && time.charAt(i) != ':'; i++) 
+			hr = hr * 10 + digit(time.charAt(i));
+		if (i == 0 || i > 2)
+			throw new NumberFormatException("ERR: Invalid time format");
+		if (i == length)
+			return valueOf(hr, 0);
+		if (length - i != 3)
+			throw new NumberFormatException("ERR: Invalid time format");
+		return valueOf(hr, digit(time.charAt(i + 1)) * 10 + digit(time.charAt(i + 2)));
+	}
+	public static Time valueOf(Calendar c) {
+		return valueOf(c.get(Calendar.HOUR_OF_DAY), c.get(Calendar.MINUTE));
+	}
+	public static Time valueOf(NowSnapshot now) {
+		return TIMES[now.getMinuteOfDay()];
+	}
+	// returns the time the given number of minutes after midnight, checking for correctness
+	public static Time ofMinuteOfDay(int minuteOfDay) {
+		if (minuteOfDay<0 || minuteOfDay>=MINUTES_PER_DAY) {
+			throw new RuntimeException("Invalid minute of day; must be in range (0-1439)");
+		}
+		return TIMES[minuteOfDay];
+	}
+	// returns the current time according to the default Clock
+	public static Time now() {
+		return valueOf(Clock.snapshot());
+	}
+	
+	// returns the value of a decimal digit, throwing NumberFormatException if c is not one
+	private static int digit(char c) {
+		if (c < '0' || c > '9')
+			throw new NumberFormatException("ERR: Invalid time format");
+		return c - '0';
 	}
 	
 	
 	// returns hour in 24 hour time
-	public int getHour() 			{return hour;}
+	public int getHour() 			{return minutes / 60;}
 	// returns minute
-	public int getMinute() 			{return minute;}
+	public int getMinute() 			{return minutes % 60;}
 	
 	
 	// returns true if the time contained in 'this' comes before (in the same day) 
 	// the time contained in 'time'
 	public boolean before(Time t) {
-		return totalMinutes() < t.totalMinutes();
+		return minutes < t.minutes;
 	}
 	
 	public boolean equals(Time t) {
-		return (getHour() == t.getHour() && getMinute() == t.getMinute());
+		return t != null && minutes == t.minutes;
+	}
+	
+	public boolean equals(Object o) {
+		return o instanceof Time && equals((Time)o);
+	}
+	
+	public int hashCode() {
+		return minutes;
 	}
 	
 	public boolean after(Time t) {
-		return totalMinutes() > t.totalMinutes();
+		return minutes > t.minutes;
 	}
 	
 	public boolean before(Range r) {
@@ -129,23 +139,45 @@ public class Time {
 	
 	// returns the number of minutes elapsed in the day
 	public int totalMinutes() {
-		return getHour()*60 + getMinute();
+		return minutes;
 	}
 	
 	// returns a string representation of the contained time in set or default format (12 or 24 hour time);
 	public String toString() {		
-		return toString(Main.display24);
+		return toString(display24);
 	}
 		
 	public String toString(boolean display24) {
 		if (display24) {
-			return ((getHour()<10 ? "0":"") + getHour() + ":" + (getMinute()==0?"00":(getMinute()<10?"0" + getMinute():getMinute())));
+			if (string24 == null)
+				string24 = format(true);
+			return string24;
+		} else {
+			if (string12 == null)
+				string12 = format(false);
+			return string12;
+		}
+	}
+	
+	private String format(boolean display24) {
+		StringBuilder out = new StringBuilder(8);
+		int hr = getHour();
+		if (display24) {
+			if (hr < 10)
+				out.append('0');
+			out.append(hr);
 		} else {
-			int hr = (getHour() + 12 - 1)%12 + 1; 	// turns hour to 12 hour format (the + 12 simply 
-													// makes the modulus operator behave as it is 
-													// mathematically defined)
-			return (hr + ":" + (getMinute()==0?"00":(getMinute()<10?"0" + getMinute():getMinute())) + " " + (getHour()>=12 ? "pm" : "am"));
+			out.append((hr + 12 - 1)%12 + 1); 	// turns hour to 12 hour format (the + 12 simply 
+												// makes the modulus operator behave as it is 
+												// mathematically defined)
 		}
+		out.append(':');
+		if (getMinute() < 10)
+			out.append('0');
+		out.append(getMinute());
+		if (!display24)
+			out.append(hr >= 12 ? " pm" : " am");
+		return out.toString();
 	}
 	
 }
@@ -0,0 +1,270 @@
+package edu.vanderbilt.vuphone.android.objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import android.os.Handler;
+import edu.vanderbilt.vuphone.android.storage.Restaurant;
+
+/**
+ * Keeps the open/closed state of every restaurant, and only recomputes it when some restaurant
+ * actually opens or closes. The next opening or closing of each restaurant is kept in a queue
+ * sorted by time; while any Listener is registered a single callback is posted for the earliest
+ * one, and when it fires the listeners are told which restaurants changed.
+ *
+ * Between transitions isOpen() is a read from a cached array. Reads also catch up on any
+ * transitions that have passed while no callback was posted (nothing registered, or the
+ * device asleep), so they are always current. A read only updates the cached state: the
+ * restaurants it finds changed are queued, and the listeners are told from the posted
+ * callback, never from inside the read. Reads come from drawing and sorting the list, which
+ * a listener would otherwise resort in the middle of.
+ *
+ * Indexes used here are cache indexes, as returned by Restaurant.getI()
+ *
+ */
+public class TransitionScheduler {
+
+	/** Told about restaurants which have opened or closed */
+	public interface Listener {
+		/**
+		 * @param changedIDs
+		 * 	row ids of the restaurants whose open state changed
+		 * @param now
+		 * 	the moment the change was noticed
+		 */
+		public void onTransition(long [] changedIDs, NowSnapshot now);
+	}
+
+	private static final long MILLIS_PER_MINUTE = 60 * 1000;
+	// updates further apart than this (in wall clock time) rebuild everything, since 
+	// the minute of the week alone can't tell how many weeks went by
+	private static final long MAX_CATCH_UP = HoursIndex.MINUTES_PER_DAY * MILLIS_PER_MINUTE;
+	// bits of a queue entry holding the restaurant index, the rest hold the minute
+	private static final int INDEX_BITS = 20;
+	private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+	private static final long [] NONE = new long[0];
+
+	private static TransitionScheduler instance;
+
+	// row ids and hours of the restaurants, in cache order
+	private long [] _ids;
+	private RestaurantHours [] _hours;
+	// cached open state, by index
+	private boolean [] _open;
+	// next transitions, each entry is (minute << INDEX_BITS | index), minutes counted on from _base
+	private PriorityQueue<Long> _queue;
+	// minute of the week that the scheduler's minute count started at
+	private int _base;
+	// minutes elapsed since _base at the last update
+	private int _minute = -1;
+	// wall clock time of the last update
+	private long _updatedAt;
+
+	private volatile boolean _invalid = true;
+	private final ArrayList<Listener> _listeners = new ArrayList<Listener>();
+	// row ids found changed by updates, not yet told to the listeners
+	private final LinkedHashSet<Long> _pending = new LinkedHashSet<Long>();
+	private Handler _handler;
+	private final Runnable _fire = new Runnable() {
+		public void run() {
+			NowSnapshot now = Clock.snapshot();
+			update(now);
+			notifyListeners(now);
+			schedule();
+		}
+	};
+
+	// returns the scheduler shared by the whole application
+	public static synchronized TransitionScheduler get() {
+		if (instance == null)
+			instance = new TransitionScheduler();
+		return instance;
+	}
+
+	/**
+	 * Marks the cached state as out of date, call when restaurants or their hours
+	 * are added, removed or changed. The state is rebuilt at the next read
+	 */
+	public static void invalidate() {
+		TransitionScheduler s = instance;
+		if (s != null)
+			s._invalid = true;
+	}
+
+	// returns true if the restaurant with the given row id is open now, false if there is none
+	public boolean isOpen(long rowID) {
+		int i = Restaurant.getI(rowID);
+		if (i < 0)
+			return false;
+		return isOpenAt(i);
+	}
+
+	// returns true if the restaurant with the given cache index is open now
+	public synchronized boolean isOpenAt(int i) {
+		update(Clock.snapshot());
+		return i < _open.length && _open[i];
+	}
+
+	/**
+	 * Starts notifying l of transitions, posting the callbacks to the calling thread,
+	 * which must have a Looper (register from the UI thread, eg in onResume())
+	 */
+	public synchronized void register(Listener l) {
+		if (!_listeners.contains(l))
+			_listeners.add(l);
+		if (_handler == null)
+			_handler = new Handler();
+		update(Clock.snapshot());
+		schedule();
+	}
+
+	// stops notifying l, no callbacks are posted once nothing is registered (eg call in onPause())
+	public synchronized void unregister(Listener l) {
+		_listeners.remove(l);
+		if (_listeners.isEmpty()) {
+			_pending.clear(); // a listener registering later reads the state afresh
+			if (_handler != null)
+				_handler.removeCallbacks(_fire);
+		}
+	}
+
+	/**
+	 * Brings the cached state up to the given moment. The restaurants that opened or closed
+	 * since the last update are queued for the listeners, who are told from the posted
+	 * callback rather than from here
+	 * @return the row ids of the restaurants that changed
+	 */
+	public synchronized long [] update(NowSnapshot now) {
+		long wallClock = System.currentTimeMillis();
+		boolean [] changed = null;
+		int changedCount = 0;
+		if (_invalid || _minute < 0 || wallClock - _updatedAt >= MAX_CATCH_UP || wallClock < _updatedAt) {
+			long [] oldIDs = _ids;
+			boolean [] oldOpen = _open;
+			rebuild(now);
+			if (oldOpen != null && Arrays.equals(oldIDs, _ids)) {
+				changed = new boolean[_ids.length];
+				for (int i = 0; i < _ids.length; i++) {
+					changed[i] = oldOpen[i] != _open[i];
+					if (changed[i])
+						changedCount++;
+				}
+			}
+		} else {
+			int elapsed = (now.getMinuteOfWeek() - (_base + _minute) % HoursIndex.MINUTES_PER_WEEK
+					+ HoursIndex.MINUTES_PER_WEEK) % HoursIndex.MINUTES_PER_WEEK;
+			if (elapsed == 0)
+				return NONE;
+			_minute += elapsed;
+	
+			while (!_queue.isEmpty() && (_queue.peek() >> INDEX_BITS) <= _minute) {
+				int i = (int)(_queue.poll() & INDEX_MASK);
+				boolean open = _hours[i].isOpen(now);
+				if (open != _open[i]) {
+					if (changed == null)
+						changed = new boolean[_ids.length];
+					if (!changed[i])
+						changedCount++;
+					changed[i] = true;
+					_open[i] = open;
+				}
+				enqueue(i, now);
+			}
+		}
+		_updatedAt = wallClock;
+		if (changedCount == 0)
+			return NONE;
+
+		long [] changedIDs = new long[changedCount];
+		for (int i = 0, j = 0; i < changed.length; i++)
+			if (changed[i])
+				changedIDs[j++] = _ids[i];
+		if (!_listeners.isEmpty()) {
+			for (int i = 0; i < changedIDs.length; i++)
+				_pending.add(changedIDs[i]);
+			if (_handler != null) {
+				// told as soon as whatever is reading is done
+				_handler.removeCallbacks(_fire);
+				_handler.post(_fire);
+			}
+		}
+		return changedIDs;
+	}
+
+	// tells the listeners about the changes queued since they were last told, outside the lock
+	// so a listener can read the state back
+	private void notifyListeners(NowSnapshot now) {
+		long [] changedIDs;
+		Listener [] listeners;
+		synchronized (this) {
+			if (_pending.isEmpty())
+				return;
+			changedIDs = new long[_pending.size()];
+			int j = 0;
+			for (Long id : _pending)
+				changedIDs[j++] = id;
+			_pending.clear();
+			listeners = _listeners.toArray(new Listener[_listeners.size()]);
+		}
+		for (int l = 0; l < listeners.length; l++)
+			listeners[l].onTransition(changedIDs, now);
+	}
+
+	// returns the number of minutes from the last update until the next transition, -1 if none
+	public synchronized int minutesToNextTransition() {
+		if (_queue == null || _queue.isEmpty())
+			return -1;
+		return (int)(_queue.peek() >> INDEX_BITS) - _minute;
+	}
+
+	// reads every restaurant's hours and state, and queues their next transitions
+	private void rebuild(NowSnapshot now) {
+		List<Long> IDs = Restaurant.getIDs();
+		int n = IDs.size();
+		_ids = new long[n];
+		_hours = new RestaurantHours[n];
+		_open = new boolean[n];
+		_queue = new PriorityQueue<Long>(Math.max(n, 1));
+		_base = now.getMinuteOfWeek();
+		_minute = 0;
+		BitSet open = HoursQuery.get().openAt(now);
+		for (int i = 0; i < n; i++) {
+			_ids[i] = IDs.get(i);
+			_hours[i] = Restaurant.getHours(_ids[i]);
+			_open[i] = open.get(i);
+			enqueue(i, now);
+		}
+		_invalid = false;
+	}
+
+	// queues the next transition of restaurant i after now, if it ever has one
+	private void enqueue(int i, NowSnapshot now) {
+		int next = _hours[i].effectiveOn(now).getIndex().nextChange(now.getMinuteOfWeek());
+		if (next >= 0)
+			_queue.add(((long)(_minute + next - now.getMinuteOfWeek()) << INDEX_BITS) | i);
+	}
+
+	// posts the callback for the earliest transition, if anyone is listening, or right away
+	// if changes are waiting to be told
+	private synchronized void schedule() {
+		if (_handler == null)
+			return;
+		_handler.removeCallbacks(_fire);
+		if (_listeners.isEmpty())
+			return;
+		if (!_pending.isEmpty()) {
+			_handler.post(_fire);
+			return;
+		}
+		int minutes = minutesToNextTransition();
+		if (minutes < 0)
+			return;
+		long delay = minutes * MILLIS_PER_MINUTE - System.currentTimeMillis() % MILLIS_PER_MINUTE;
+		_handler.postDelayed(_fire, Math.max(delay, 0));
+	}
+}
@@ -0,0 +1,118 @@
+package edu.vanderbilt.vuphone.android.storage;
+
+import java.util.ArrayList;
+
+import android.database.Cursor;
+import edu.vanderbilt.vuphone.android.objects.RestaurantHours;
+import edu.vanderbilt.vuphone.android.objects.RestaurantMenu;
+
+/**
+ * Reads restaurant rows into the DbWrapper cache. A loader is made for one cursor, looks up
+ * the index of each column it reads once, and then fills Restaurants from the rows the
+ * cursor moves over.
+ *
+ * What is read is a projection, a combination of the flags below: the row id is always read,
+ * MAIN is what the list needs, MAP what the map needs and DETAILS the rest of the details page.
+ *
+ */
+final class CacheLoader {
+
+	/** name, hours, the booleans and type */
+	protected static final int MAIN = 1;
+	/** latitude, longitude and icon */
+	protected static final int MAP = 2;
+	/** description, phone number, url and menu */
+	protected static final int DETAILS = 4;
+
+	private final Cursor _cursor;
+	private final int _projection;
+
+	// column indexes in the cursor, only those in the projection are set
+	private final int _id;
+	private int _name, _hours, _booleans, _type;
+	private int _latitude, _longitude, _icon;
+	private int _description, _phoneNumber, _url, _menu;
+
+	/**
+	 * @param cursor
+	 * 	a cursor over the columns returned by columns() for the projection
+	 * @param projection
+	 * 	the fields to read, a combination of MAIN, MAP and DETAILS
+	 */
+	protected CacheLoader(Cursor cursor, int projection) {
+		_cursor = cursor;
+		_projection = projection;
+		_id = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_ID);
+		if ((projection & MAIN) != 0) {
+			_name = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_NAME);
+			_hours = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_HOURS);
+			_booleans = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_BOOLEANS);
+			_type = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_TYPE);
+		}
+		if ((projection & MAP) != 0) {
+			_latitude = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_LATITUDE);
+			_longitude = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_LONGITUDE);
+			_icon = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_ICON);
+		}
+		if ((projection & DETAILS) != 0) {
+			_description = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_DESCRIPTION);
+			_phoneNumber = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_PHONE_NUMBER);
+			_url = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_URL);
+			_menu = cursor.getColumnIndexOrThrow(DbAdapter.COLUMN_MENU);
+		}
+	}
+
+	// returns the columns to query for a projection
+	protected static String [] columns(int projection) {
+		ArrayList<String> columns = new ArrayList<String>(12);
+		columns.add(DbAdapter.COLUMN_ID);
+		if ((projection & MAIN) != 0) {
+			columns.add(DbAdapter.COLUMN_NAME);
+			columns.add(DbAdapter.COLUMN_HOURS);
+			columns.add(DbAdapter.COLUMN_BOOLEANS);
+			columns.add(DbAdapter.COLUMN_TYPE);
+		}
+		if ((projection & MAP) != 0) {
+			columns.add(DbAdapter.COLUMN_LATITUDE);
+			columns.add(DbAdapter.COLUMN_LONGITUDE);
+			columns.add(DbAdapter.COLUMN_ICON);
+		}
+		if ((projection & DETAILS) != 0) {
+			columns.add(DbAdapter.COLUMN_DESCRIPTION);
+			columns.add(DbAdapter.COLUMN_PHONE_NUMBER);
+			columns.add(DbAdapter.COLUMN_URL);
+			columns.add(DbAdapter.COLUMN_MENU);
+		}
+		return columns.toArray(new String[columns.size()]);
+	}
+
+	// returns the row id of the row the cursor is on
+	protected long id() {
+		return _cursor.getLong(_id);
+	}
+
+	// sets the fields of the projection on r from the row the cursor is on
+	protected void fill(Restaurant r) {
+		Cursor c = _cursor;
+		if ((_projection & MAIN) != 0) {
+			r.setName(c.getString(_name));
+			r.setHours(RestaurantHours.decode(c.getBlob(_hours)));
+			boolean [] booleans = DbAdapter.booleansDecode(c.getInt(_booleans));
+			r.setFavorite(booleans[0]);
+			r.setPlanAccepted(booleans[1]);
+			r.setMoneyAccepted(booleans[2]);
+			r.setOffCampus(booleans[3]);
+			r.setType(c.getString(_type));
+		}
+		if ((_projection & MAP) != 0) {
+			r.setLocation(c.getInt(_latitude), c.getInt(_longitude));
+			r.setIcon(c.getInt(_icon));
+		}
+		if ((_projection & DETAILS) != 0) {
+			r.setDescription(c.getString(_description));
+			r.setPhoneNumber(c.getString(_phoneNumber));
+			r.setUrl(c.getString(_url));
+			r.setMenu(c.isNull(_menu) ? null : RestaurantMenu.decode(c.getBlob(_menu)));
+		}
+	}
+}
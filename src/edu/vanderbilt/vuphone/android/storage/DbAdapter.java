@@ -1,6 +1,7 @@
 package edu.vanderbilt.vuphone.android.storage;
 
-import java.util.Calendar;
+import java.util.ArrayList;
+import java.util.HashMap;
 
 import android.content.ContentValues;
 import android.content.Context;
@@ -8,8 +9,13 @@ import android.database.Cursor;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.database.sqlite.SQLiteDatabase.CursorFactory;
 import android.util.Log;
+import edu.vanderbilt.vuphone.android.objects.HoursOverride;
+import edu.vanderbilt.vuphone.android.objects.Range;
+import edu.vanderbilt.vuphone.android.objects.RestaurantHours;
+import edu.vanderbilt.vuphone.android.objects.RestaurantMenu;
 
 
 /**
@@ -24,7 +30,7 @@ public class DbAdapter {
 	//private static final String pre = "DBAdapter: ";
 
 	/** Used for database updates */
-	private static final int DB_VERSION = 7;
+	private static final int DB_VERSION = 11;
 
 	/** The filename where the database is stored */
 	private static final String DB_NAME = "dining.db";
@@ -37,6 +43,9 @@ public class DbAdapter {
 
 	/** The other column names */
 	protected static final String COLUMN_NAME 			= "name";
+	protected static final String COLUMN_HOURS 			= "hours";
+	
+	/** The per day hour columns, replaced by COLUMN_HOURS in version 8 */
 	protected static final String COLUMN_HOUR_SUN 		= "hourS";
 	protected static final String COLUMN_HOUR_MON 		= "hourM";
 	protected static final String COLUMN_HOUR_TUE 		= "hourT";
@@ -53,10 +62,36 @@ public class DbAdapter {
 	protected static final String COLUMN_BOOLEANS		= "bools";
 	protected static final String COLUMN_PHONE_NUMBER 	= "phoneNumber";
 	protected static final String COLUMN_URL 			= "url";
+	/** The natural key (Restaurant.getKey()) and content hash (Restaurant.contentHash()), added in version 10 */
+	protected static final String COLUMN_KEY 			= "key";
+	protected static final String COLUMN_HASH 			= "hash";
+	
+	/** One row table holding the hash of all the shipped data last seeded, added in version 10 */
+	protected static final String SEED_TABLE = "seed";
+	
+	/** The table of date specific hours, added in version 9 */
+	protected static final String OVERRIDE_TABLE = "overrides";
+	
+	/** The override column names, besides COLUMN_ID and COLUMN_HOURS */
+	protected static final String COLUMN_RESTAURANT 	= "restaurant";
+	protected static final String COLUMN_FIRST_DAY 		= "firstDay";
+	protected static final String COLUMN_LAST_DAY 		= "lastDay";
+	protected static final String COLUMN_NOTE 			= "note";
+	
+	/** The FTS3 full text index of every restaurant, see RestaurantSearch, added in version 11. 
+	 * Its rows have the restaurant's row id as docid and the columns COLUMN_NAME, COLUMN_TYPE, 
+	 * COLUMN_DESCRIPTION and COLUMN_MENU, the menu as the names of its items. Kept in step 
+	 * with those columns by every write of them, see writeSearch() */
+	protected static final String SEARCH_TABLE = "restaurant_search";
+	protected static final String COLUMN_DOCID = "docid";
 	
-	/** Handle to the database instance */
+	/** Handle to the database instance, every write goes through it */
 	private SQLiteDatabase _database;
 
+	/** Handle reads go through: a second, read only connection when the journal is in 
+	 * write ahead mode, so reads do not wait on writes, and _database otherwise */
+	private SQLiteDatabase _reader;
+
 	/** Used to help open and update the database */
 	DBOpenHelper _openHelper;
 
@@ -71,13 +106,24 @@ public class DbAdapter {
 				+ RESTAURANT_TABLE		+ " ("
 				+ COLUMN_ID				+ " INTEGER PRIMARY KEY AUTOINCREMENT,"
 				+ COLUMN_NAME 			+ " TEXT NOT NULL,"
-				+ COLUMN_HOUR_SUN 		+ " INTEGER NOT NULL,"
-				+ COLUMN_HOUR_MON 		+ " INTEGER NOT NULL,"
-				+ COLUMN_HOUR_TUE 		+ " INTEGER NOT NULL,"
-				+ COLUMN_HOUR_WED 		+ " INTEGER NOT NULL,"
-				+ COLUMN_HOUR_THU 		+ " INTEGER NOT NULL,"
-				+ COLUMN_HOUR_FRI 		+ " INTEGER NOT NULL,"
-				+ COLUMN_HOUR_SAT 		+ " INTEGER NOT NULL,"
+				+ COLUMN_HOURS 			+ " BLOB NOT NULL,"
+				+ COLUMN_BOOLEANS 		+ " INTEGER NOT NULL,"
+				+ COLUMN_TYPE 			+ " TEXT NOT NULL,"
+				+ COLUMN_LATITUDE 		+ " INTEGER NOT NULL,"
+				+ COLUMN_LONGITUDE 		+ " INTEGER NOT NULL,"
+				+ COLUMN_ICON 			+ " INTEGER NOT NULL,"
+				+ COLUMN_DESCRIPTION 	+ " TEXT,"
+				+ COLUMN_PHONE_NUMBER 	+ " TEXT,"
+				+ COLUMN_URL 			+ " TEXT,"
+				+ COLUMN_MENU 			+ " BLOB,"
+				+ COLUMN_KEY 			+ " TEXT,"
+				+ COLUMN_HASH 			+ " INTEGER NOT NULL DEFAULT 0);";
+		/** The table as of version 8, when COLUMN_HOURS replaced the per day columns */
+		private static final String RESTAURANT_CREATE_V8 = "CREATE TABLE "
+				+ RESTAURANT_TABLE		+ " ("
+				+ COLUMN_ID				+ " INTEGER PRIMARY KEY AUTOINCREMENT,"
+				+ COLUMN_NAME 			+ " TEXT NOT NULL,"
+				+ COLUMN_HOURS 			+ " BLOB NOT NULL,"
 				+ COLUMN_BOOLEANS 		+ " INTEGER NOT NULL,"
 				+ COLUMN_TYPE 			+ " TEXT NOT NULL,"
 				+ COLUMN_LATITUDE 		+ " INTEGER NOT NULL,"
@@ -87,6 +133,69 @@ public class DbAdapter {
 				+ COLUMN_PHONE_NUMBER 	+ " TEXT,"
 				+ COLUMN_URL 			+ " TEXT,"
 				+ COLUMN_MENU 			+ " BLOB);";
+		private static final String RESTAURANT_KEY_INDEX_CREATE = "CREATE INDEX IF NOT EXISTS "
+				+ RESTAURANT_TABLE + "_" + COLUMN_KEY + " ON " + RESTAURANT_TABLE + " (" + COLUMN_KEY + ");";
+		
+		/** Used to create the seed table */
+		private static final String SEED_CREATE = "CREATE TABLE IF NOT EXISTS "
+				+ SEED_TABLE 			+ " ("
+				+ COLUMN_HASH 			+ " INTEGER NOT NULL);";
+
+		/** Used to create the override table, and its index by restaurant and date */
+		private static final String OVERRIDE_CREATE = "CREATE TABLE IF NOT EXISTS "
+				+ OVERRIDE_TABLE		+ " ("
+				+ COLUMN_ID				+ " INTEGER PRIMARY KEY AUTOINCREMENT,"
+				+ COLUMN_RESTAURANT 	+ " INTEGER NOT NULL,"
+				+ COLUMN_FIRST_DAY 		+ " INTEGER NOT NULL,"
+				+ COLUMN_LAST_DAY 		+ " INTEGER NOT NULL,"
+				+ COLUMN_HOURS 			+ " BLOB NOT NULL,"
+				+ COLUMN_NOTE 			+ " TEXT);";
+		private static final String OVERRIDE_INDEX_CREATE = "CREATE INDEX IF NOT EXISTS "
+				+ OVERRIDE_TABLE + "_" + COLUMN_RESTAURANT + " ON " + OVERRIDE_TABLE 
+				+ " (" + COLUMN_RESTAURANT + ", " + COLUMN_FIRST_DAY + ");";
+
+		/** The steps from each version since 7 to the next, see Migration */
+		private static final Migration [] MIGRATIONS = {
+			new Migration(7, "moving hours into one column") {
+				protected void apply(SQLiteDatabase db) {
+					moveHoursToBlob(db);
+				}
+			},
+			new Migration(8, "adding the override table") {
+				protected void apply(SQLiteDatabase db) {
+					db.execSQL(OVERRIDE_CREATE);
+					db.execSQL(OVERRIDE_INDEX_CREATE);
+				}
+			},
+			new Migration(9, "adding natural keys and content hashes") {
+				protected void apply(SQLiteDatabase db) {
+					db.execSQL("ALTER TABLE " + RESTAURANT_TABLE + " ADD COLUMN " + COLUMN_KEY + " TEXT");
+					db.execSQL("ALTER TABLE " + RESTAURANT_TABLE + " ADD COLUMN " + COLUMN_HASH 
+							+ " INTEGER NOT NULL DEFAULT 0");
+					db.execSQL(RESTAURANT_KEY_INDEX_CREATE);
+					db.execSQL(SEED_CREATE);
+					fillKeys(db);
+				}
+			},
+			new Migration(10, "adding the search index") {
+				protected void apply(SQLiteDatabase db) {
+					db.execSQL(SEARCH_CREATE);
+					Cursor c = db.query(RESTAURANT_TABLE, new String[] {COLUMN_ID}, 
+							null, null, null, null, null);
+					try {
+						while (c.moveToNext())
+							indexSearch(db, c.getLong(0));
+					} finally {
+						c.close();
+					}
+				}
+			}
+		};
+
+		/** Used to create the search table, columns in the order RestaurantSearch weighs them */
+		private static final String SEARCH_CREATE = "CREATE VIRTUAL TABLE " + SEARCH_TABLE 
+				+ " USING fts3(" + COLUMN_NAME + ", " + COLUMN_TYPE + ", " + COLUMN_DESCRIPTION 
+				+ ", " + COLUMN_MENU + ");";
 
 		// create table restaurants (_id integer primary key autoincrement,
 		// name text not null, latitude real not null, longitude real not null,
@@ -107,6 +216,11 @@ public class DbAdapter {
 		public void onCreate(SQLiteDatabase db) {
 			Log.i("i", pre + "Creating a new DB");
 			db.execSQL(RESTAURANT_CREATE); 
+			db.execSQL(RESTAURANT_KEY_INDEX_CREATE);
+			db.execSQL(OVERRIDE_CREATE);
+			db.execSQL(OVERRIDE_INDEX_CREATE);
+			db.execSQL(SEED_CREATE);
+			db.execSQL(SEARCH_CREATE);
 		}
 
 		/**
@@ -115,13 +229,99 @@ public class DbAdapter {
 		 */
 		@Override
 		public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-			// Log the version upgrade.
+			if (Migration.upgrade(db, oldVersion, newVersion, MIGRATIONS))
+				return;
+			
+			// older than the first migration, nothing to keep
 			Log.w("Warning", pre + "Upgrading from version " + oldVersion + " to "
 					+ newVersion + ", which will destroy all old data");
 
 			db.execSQL("DROP TABLE IF EXISTS " + RESTAURANT_TABLE);
+			db.execSQL("DROP TABLE IF EXISTS " + OVERRIDE_TABLE);
+			db.execSQL("DROP TABLE IF EXISTS " + SEED_TABLE);
+			db.execSQL("DROP TABLE IF EXISTS " + SEARCH_TABLE);
 			onCreate(db);
 		}
+		
+		/**
+		 * Sets the natural key of every restaurant from its name. The hashes are left 
+		 * at 0, so the next reseed rewrites the shipped data of every row (keeping favorites)
+		 * @param db
+		 * 	the database being upgraded
+		 */
+		private static void fillKeys(SQLiteDatabase db) {
+			Cursor c = db.query(RESTAURANT_TABLE, new String[] {COLUMN_ID, COLUMN_NAME}, 
+					null, null, null, null, null);
+			try {
+				ContentValues values = new ContentValues(1);
+				while (c.moveToNext()) {
+					values.put(COLUMN_KEY, new Restaurant(c.getString(1)).getKey());
+					db.update(RESTAURANT_TABLE, values, COLUMN_ID + "=" + c.getLong(0), null);
+				}
+			} finally {
+				c.close();
+			}
+		}
+		
+		/**
+		 * Rebuilds a version 7 table as a version 8 one, replacing the seven per day 
+		 * hour columns with COLUMN_HOURS. Every other column (favorites included) is 
+		 * copied as is
+		 * @param db
+		 * 	the database being upgraded
+		 */
+		private static void moveHoursToBlob(SQLiteDatabase db) {
+			String oldTable = RESTAURANT_TABLE + "_v7";
+			db.execSQL("ALTER TABLE " + RESTAURANT_TABLE + " RENAME TO " + oldTable);
+			db.execSQL(RESTAURANT_CREATE_V8);
+			
+			String [] days = {COLUMN_HOUR_SUN, COLUMN_HOUR_MON, COLUMN_HOUR_TUE, COLUMN_HOUR_WED, 
+					COLUMN_HOUR_THU, COLUMN_HOUR_FRI, COLUMN_HOUR_SAT};
+			Cursor c = db.query(oldTable, null, null, null, null, null, null);
+			try {
+				int [] dayColumns = new int[days.length];
+				for (int i = 0; i < days.length; i++)
+					dayColumns[i] = c.getColumnIndexOrThrow(days[i]);
+				int idColumn 		= c.getColumnIndexOrThrow(COLUMN_ID);
+				int nameColumn 		= c.getColumnIndexOrThrow(COLUMN_NAME);
+				int booleansColumn 	= c.getColumnIndexOrThrow(COLUMN_BOOLEANS);
+				int typeColumn 		= c.getColumnIndexOrThrow(COLUMN_TYPE);
+				int latColumn 		= c.getColumnIndexOrThrow(COLUMN_LATITUDE);
+				int lonColumn 		= c.getColumnIndexOrThrow(COLUMN_LONGITUDE);
+				int iconColumn 		= c.getColumnIndexOrThrow(COLUMN_ICON);
+				int descColumn 		= c.getColumnIndexOrThrow(COLUMN_DESCRIPTION);
+				int phoneColumn 	= c.getColumnIndexOrThrow(COLUMN_PHONE_NUMBER);
+				int urlColumn 		= c.getColumnIndexOrThrow(COLUMN_URL);
+				int menuColumn 		= c.getColumnIndexOrThrow(COLUMN_MENU);
+				
+				ContentValues values = new ContentValues(16);
+				ArrayList<ArrayList<Range>> week = new ArrayList<ArrayList<Range>>(7);
+				while (c.moveToNext()) {
+					week.clear();
+					for (int i = 0; i < dayColumns.length; i++)
+						week.add(RestaurantHours.inflate(c.getLong(dayColumns[i])));
+					
+					values.clear();
+					values.put(COLUMN_ID 			, c.getLong(idColumn));
+					values.put(COLUMN_NAME 			, c.getString(nameColumn));
+					values.put(COLUMN_HOURS 		, new RestaurantHours(week).encode());
+					values.put(COLUMN_BOOLEANS 		, c.getInt(booleansColumn));
+					values.put(COLUMN_TYPE 			, c.getString(typeColumn));
+					values.put(COLUMN_LATITUDE 		, c.getInt(latColumn));
+					values.put(COLUMN_LONGITUDE 	, c.getInt(lonColumn));
+					values.put(COLUMN_ICON 			, c.getInt(iconColumn));
+					values.put(COLUMN_DESCRIPTION 	, c.getString(descColumn));
+					values.put(COLUMN_PHONE_NUMBER 	, c.getString(phoneColumn));
+					values.put(COLUMN_URL 			, c.getString(urlColumn));
+					values.put(COLUMN_MENU 			, c.isNull(menuColumn) ? null : c.getBlob(menuColumn));
+					if (db.insert(RESTAURANT_TABLE, null, values) < 0)
+						throw new SQLException("moveHoursToBlob: could not copy restaurant " + c.getLong(idColumn));
+				}
+			} finally {
+				c.close();
+			}
+			db.execSQL("DROP TABLE " + oldTable);
+		}
 	}
 
 	
@@ -132,9 +332,18 @@ public class DbAdapter {
 
 	/** Used to close the database when done */
 	protected void close() {
+		if (_reader != null && _reader != _database)
+			_reader.close();
+		_reader = null;
+		_database = null;
 		_openHelper.close();
 	}
 
+	/** Returns true if open() was called since the last close() */
+	protected boolean isOpen() {
+		return _database != null && _database.isOpen();
+	}
+
 	/**
 	 * Create a new restaurant using the restaurant provided. 
 	 * If the restaurant is successfully created
@@ -160,13 +369,7 @@ public class DbAdapter {
 	protected long createRestaurant(Restaurant r) {
 		ContentValues initialValues = new ContentValues(6);
 		initialValues.put(COLUMN_NAME 			, r.getName());
-		initialValues.put(COLUMN_HOUR_SUN 		, r.getHours().flatten(Calendar.SUNDAY));
-		initialValues.put(COLUMN_HOUR_MON 		, r.getHours().flatten(Calendar.MONDAY));
-		initialValues.put(COLUMN_HOUR_TUE 		, r.getHours().flatten(Calendar.TUESDAY)); 
-		initialValues.put(COLUMN_HOUR_WED 		, r.getHours().flatten(Calendar.WEDNESDAY)); 
-		initialValues.put(COLUMN_HOUR_THU 		, r.getHours().flatten(Calendar.THURSDAY)); 
-		initialValues.put(COLUMN_HOUR_FRI 		, r.getHours().flatten(Calendar.FRIDAY)); 
-		initialValues.put(COLUMN_HOUR_SAT 		, r.getHours().flatten(Calendar.SATURDAY));
+		initialValues.put(COLUMN_HOURS 			, r.getHours().encode());
 		initialValues.put(COLUMN_DESCRIPTION 	, r.getDescription());
 		initialValues.put(COLUMN_TYPE 			, r.getType());
 		initialValues.put(COLUMN_ICON 			, r.getIcon());
@@ -176,16 +379,186 @@ public class DbAdapter {
 		         {r.favorite(), r.mealPlanAccepted(), r.mealMoneyAccepted(), r.offCampus()}));
 		initialValues.put(COLUMN_PHONE_NUMBER 	, r.getPhoneNumber());
 		initialValues.put(COLUMN_URL 			, r.getUrl());
+		initialValues.put(COLUMN_KEY 			, r.getKey());
+		initialValues.put(COLUMN_HASH 			, r.contentHash());
+		initialValues.put(COLUMN_MENU 			, r.getMenu() == null ? null : r.getMenu().encode());
+		
+		_database.beginTransaction();
+		try {
+			long rowId = _database.insert(RESTAURANT_TABLE, null, initialValues);
+			if (rowId >= 0)
+				writeSearch(_database, rowId, r);
+			_database.setTransactionSuccessful();
+			return rowId;
+		} finally {
+			_database.endTransaction();
+		}
+	}
+	
+	/**
+	 * Creates many restaurants in one transaction, with one compiled insert statement 
+	 * rebound for each row, so the database is only synced once. Nothing is written 
+	 * unless every row is
+	 * 
+	 * @param restaurants
+	 *            the restaurants to create
+	 * @return the rowIds of the restaurants, in the order given
+	 */
+	protected long[] createRestaurants(ArrayList<Restaurant> restaurants) {
+		long [] rowIds = new long[restaurants.size()];
+		SQLiteStatement insert = compileInsert();
+		_database.beginTransaction();
+		try {
+			for (int i = 0; i < rowIds.length; i++)
+				rowIds[i] = insert(insert, restaurants.get(i));
+			_database.setTransactionSuccessful();
+		} finally {
+			_database.endTransaction();
+			insert.close();
+		}
+		return rowIds;
+	}
+	
+	// compiles the statement insert() runs, close it when done
+	private SQLiteStatement compileInsert() {
+		return _database.compileStatement("INSERT INTO " + RESTAURANT_TABLE + " ("
+				+ COLUMN_NAME + ", " + COLUMN_HOURS + ", " + COLUMN_DESCRIPTION + ", " 
+				+ COLUMN_TYPE + ", " + COLUMN_ICON + ", " + COLUMN_LATITUDE + ", " 
+				+ COLUMN_LONGITUDE + ", " + COLUMN_BOOLEANS + ", " + COLUMN_PHONE_NUMBER + ", " 
+				+ COLUMN_URL + ", " + COLUMN_KEY + ", " + COLUMN_HASH + ", " + COLUMN_MENU 
+				+ ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+	}
+	
+	// inserts a restaurant with a statement from compileInsert(), and its hours, returning its rowId
+	private long insert(SQLiteStatement insert, Restaurant r) {
+		insert.clearBindings();
+		insert.bindString(1, r.getName());
+		insert.bindBlob(2, r.getHours().encode());
+		bindString(insert, 3, r.getDescription());
+		insert.bindString(4, r.getType());
+		insert.bindLong(5, r.getIcon());
+		insert.bindLong(6, r.getLat());
+		insert.bindLong(7, r.getLon());
+		insert.bindLong(8, booleansEncode(new boolean [] 
+		         {r.favorite(), r.mealPlanAccepted(), r.mealMoneyAccepted(), r.offCampus()}));
+		bindString(insert, 9, r.getPhoneNumber());
+		bindString(insert, 10, r.getUrl());
+		bindString(insert, 11, r.getKey());
+		insert.bindLong(12, r.contentHash());
+		if (r.getMenu() == null)
+			insert.bindNull(13);
+		else insert.bindBlob(13, r.getMenu().encode());
+		long rowId = insert.executeInsert();
+		if (rowId < 0)
+			throw new RuntimeException("Unable to create restaurant " + r.getName());
+		writeSearch(_database, rowId, r);
+		return rowId;
+	}
+	
+	/**
+	 * Brings the restaurants in the database in line with the shipped ones, in one 
+	 * transaction. Rows are matched by natural key: shipped restaurants with no row are 
+	 * inserted, rows whose content hash differs are rewritten (keeping the favorite 
+	 * setting and the row id, so overrides stay attached), and rows with no shipped 
+	 * restaurant are deleted. The hash of all the data is then stored, see getSeedHash()
+	 * 
+	 * @param shipped
+	 * 			the restaurants shipped with the app
+	 * @param seedHash
+	 * 			the hash of all of them
+	 * @return the number of restaurants inserted, updated and deleted
+	 */
+	protected int[] reseed(ArrayList<Restaurant> shipped, long seedHash) {
+		HashMap<String, Restaurant> byKey = new HashMap<String, Restaurant>(shipped.size() * 2);
+		for (int i = 0; i < shipped.size(); i++)
+			byKey.put(shipped.get(i).getKey(), shipped.get(i));
+		int [] changes = new int[3];
 		
-		/*		
-		// TODO remove comments when menu functional
-		if (r.getMenu() != null) {
-			XStream xstream = new XStream(new DomDriver());
-			String menuf = xstream.toXML(r.getMenu());
-			initialValues.put(COLUMN_MENU, menuf);
+		_database.beginTransaction();
+		try {
+			Cursor c = _database.query(RESTAURANT_TABLE, 
+					new String[] {COLUMN_ID, COLUMN_KEY, COLUMN_HASH, COLUMN_BOOLEANS}, 
+					null, null, null, null, COLUMN_ID);
+			try {
+				while (c.moveToNext()) {
+					long rowId = c.getLong(0);
+					// removed, so each key matches one row and later duplicates are deleted
+					Restaurant r = byKey.remove(c.getString(1));
+					if (r == null) {
+						deleteRestaurant(rowId);
+						changes[2]++;
+					} else if (c.getLong(2) != r.contentHash()) {
+						boolean favorite = booleansDecode(c.getInt(3))[0];
+						ContentValues values = shippedValues(r);
+						values.put(COLUMN_BOOLEANS, booleansEncode(new boolean [] 
+						         {favorite, r.mealPlanAccepted(), r.mealMoneyAccepted(), r.offCampus()}));
+						updateColumns(rowId, values);
+						changes[1]++;
+					}
+				}
+			} finally {
+				c.close();
+			}
+			
+			SQLiteStatement insert = compileInsert();
+			try {
+				// in shipped order, so new restaurants get row ids in that order
+				for (int i = 0; i < shipped.size(); i++) {
+					if (byKey.containsKey(shipped.get(i).getKey())) {
+						insert(insert, shipped.get(i));
+						changes[0]++;
+					}
+				}
+			} finally {
+				insert.close();
+			}
+			
+			_database.delete(SEED_TABLE, null, null);
+			ContentValues values = new ContentValues(1);
+			values.put(COLUMN_HASH, seedHash);
+			_database.insert(SEED_TABLE, null, values);
+			_database.setTransactionSuccessful();
+		} finally {
+			_database.endTransaction();
 		}
-		*/
-		return _database.insert(RESTAURANT_TABLE, null, initialValues);
+		return changes;
+	}
+	
+	/**
+	 * Returns the hash stored by the last reseed(), 0 if there was none since the 
+	 * database was created or emptied
+	 */
+	protected long getSeedHash() {
+		Cursor c = _reader.query(SEED_TABLE, new String[] {COLUMN_HASH}, null, null, null, null, null);
+		try {
+			return c.moveToFirst() ? c.getLong(0) : 0;
+		} finally {
+			c.close();
+		}
+	}
+	
+	// the values of every column shipped with the app, that is all but the booleans and menu
+	private static ContentValues shippedValues(Restaurant r) {
+		ContentValues values = new ContentValues(12);
+		values.put(COLUMN_NAME 			, r.getName());
+		values.put(COLUMN_HOURS 		, r.getHours().encode());
+		values.put(COLUMN_DESCRIPTION 	, r.getDescription());
+		values.put(COLUMN_TYPE 			, r.getType());
+		values.put(COLUMN_ICON 			, r.getIcon());
+		values.put(COLUMN_LATITUDE 		, r.getLat());
+		values.put(COLUMN_LONGITUDE 	, r.getLon());
+		values.put(COLUMN_PHONE_NUMBER 	, r.getPhoneNumber());
+		values.put(COLUMN_URL 			, r.getUrl());
+		values.put(COLUMN_KEY 			, r.getKey());
+		values.put(COLUMN_HASH 			, r.contentHash());
+		return values;
+	}
+	
+	// binds a string which may be null
+	private static void bindString(SQLiteStatement statement, int index, String value) {
+		if (value == null)
+			statement.bindNull(index);
+		else statement.bindString(index, value);
 	}
 
 	/**
@@ -196,19 +569,95 @@ public class DbAdapter {
 	 * @return true if deleted, false otherwise
 	 */
 	protected boolean deleteRestaurant(long rowId) {
+		deleteOverrides(rowId);
+		_database.delete(SEARCH_TABLE, COLUMN_DOCID + "=" + rowId, null);
 		return _database.delete(RESTAURANT_TABLE, COLUMN_ID + "=" + rowId, null) > 0;
 	}
 	
+	/**
+	 * Adds date specific hours for a restaurant
+	 * @param rowId
+	 * 	id of the restaurant the hours are for
+	 * @param o
+	 * 	the override to store
+	 * @return rowId of the override or -1 if failed
+	 */
+	protected long createOverride(long rowId, HoursOverride o) {
+		ContentValues values = new ContentValues(5);
+		values.put(COLUMN_RESTAURANT 	, rowId);
+		values.put(COLUMN_FIRST_DAY 	, o.getFirstDay());
+		values.put(COLUMN_LAST_DAY 		, o.getLastDay());
+		values.put(COLUMN_HOURS 		, o.getHours().encode());
+		values.put(COLUMN_NOTE 			, o.getNote());
+		return _database.insert(OVERRIDE_TABLE, null, values);
+	}
+	
+	/**
+	 * Deletes every override of a restaurant
+	 * @param rowId
+	 * 	id of the restaurant
+	 * @return true if any were deleted
+	 */
+	protected boolean deleteOverrides(long rowId) {
+		return _database.delete(OVERRIDE_TABLE, COLUMN_RESTAURANT + "=" + rowId, null) > 0;
+	}
+	
+	/**
+	 * Return a Cursor over the overrides of one restaurant, ordered by first day
+	 * 
+	 * @param columns
+	 * 			An array of column names required to be traversable by the 
+	 * 			returned Cursor
+	 * @param rowId
+	 * 			the rowID of the restaurant
+	 * @return the cursor
+	 */
+	protected Cursor getOverrideCursor(String [] columns, long rowId) {
+		return _reader.query(OVERRIDE_TABLE, columns, COLUMN_RESTAURANT + "=" + rowId, null, 
+				null, null, COLUMN_FIRST_DAY);
+	}
+	
+	/**
+	 * Return a Cursor over every override, ordered by restaurant and first day
+	 * 
+	 * @param columns
+	 * 			An array of column names required to be traversable by the 
+	 * 			returned Cursor
+	 * @return the cursor
+	 */
+	protected Cursor getOverrideCursor(String [] columns) {
+		return _reader.query(OVERRIDE_TABLE, columns, null, null, null, null, 
+				COLUMN_RESTAURANT + ", " + COLUMN_FIRST_DAY);
+	}
+	
+	/**
+	 * Decodes the override the cursor is on, which must be traversing COLUMN_FIRST_DAY,
+	 * COLUMN_LAST_DAY, COLUMN_HOURS and COLUMN_NOTE
+	 * @param c
+	 * 	cursor from getOverrideCursor()
+	 * @return the override
+	 */
+	protected static HoursOverride overrideFromCursor(Cursor c) {
+		return new HoursOverride(
+				c.getInt(c.getColumnIndex(COLUMN_FIRST_DAY)), 
+				c.getInt(c.getColumnIndex(COLUMN_LAST_DAY)), 
+				RestaurantHours.decode(c.getBlob(c.getColumnIndex(COLUMN_HOURS))), 
+				c.getString(c.getColumnIndex(COLUMN_NOTE)));
+	}
+	
 	/** Deletes the entire contents of the database
 	 * @return true if successful
 	 */
 	protected boolean deleteAllRestaurants() {
+		_database.delete(OVERRIDE_TABLE, null, null);
+		_database.delete(SEED_TABLE, null, null);
+		_database.delete(SEARCH_TABLE, null, null);
 		return _database.delete(RESTAURANT_TABLE, null, null) > 0;
 	}
 
 	
     /**
-     * Return a Cursor over the list of all restaurants in the database
+     * Return a Cursor over the list of all restaurants in the database, in row id order
      * 
      * @param columns
      * 			An array of column names required to be traversable by the 
@@ -216,7 +665,7 @@ public class DbAdapter {
      * @return This cursor allows you to reference these columns. 
      */
     protected Cursor getCursor(String [] columns) {
-    	return _database.query(RESTAURANT_TABLE, columns, null, null, null, null, null);
+    	return _reader.query(RESTAURANT_TABLE, columns, null, null, null, null, COLUMN_ID);
     }
     
     
@@ -229,7 +678,27 @@ public class DbAdapter {
      * @return A cursor to traverse over Restaurant with rowID.
      */
     protected Cursor getCursor(String [] columns, long rowId) {
-    	return _database.query(true, RESTAURANT_TABLE, columns, COLUMN_ID + "=" + rowId, null, null, null, null, null);
+    	return _reader.query(true, RESTAURANT_TABLE, columns, COLUMN_ID + "=" + rowId, null, null, null, null, null);
+    }
+    
+    
+    /**
+     * @param columns
+     * 			An array of column names required to be traversable by the 
+     * 			returned Cursor
+     * @param rowIds
+     * 			the rowIDs of the restaurants to be traversed
+     * @return A cursor to traverse over the Restaurants with the rowIDs, in rowID order
+     */
+    protected Cursor getCursor(String [] columns, long [] rowIds) {
+    	StringBuilder where = new StringBuilder(COLUMN_ID).append(" IN (");
+    	for (int i = 0; i < rowIds.length; i++) {
+    		if (i > 0)
+    			where.append(',');
+    		where.append(rowIds[i]);
+    	}
+    	where.append(')');
+    	return _reader.query(RESTAURANT_TABLE, columns, where.toString(), null, null, null, COLUMN_ID);
     }
 
 
@@ -250,33 +719,21 @@ public class DbAdapter {
 
 		ContentValues updateParams = new ContentValues(16);
 		updateParams.put(COLUMN_NAME 			, updated.getName());                                     
-		updateParams.put(COLUMN_HOUR_SUN 		, updated.getHours().flatten(Calendar.SUNDAY));           
-		updateParams.put(COLUMN_HOUR_MON 		, updated.getHours().flatten(Calendar.MONDAY));           
-		updateParams.put(COLUMN_HOUR_TUE 		, updated.getHours().flatten(Calendar.TUESDAY));          
-		updateParams.put(COLUMN_HOUR_WED 		, updated.getHours().flatten(Calendar.WEDNESDAY));        
-		updateParams.put(COLUMN_HOUR_THU 		, updated.getHours().flatten(Calendar.THURSDAY));         
-		updateParams.put(COLUMN_HOUR_FRI 		, updated.getHours().flatten(Calendar.FRIDAY));           
-		updateParams.put(COLUMN_HOUR_SAT 		, updated.getHours().flatten(Calendar.SATURDAY));         
+		updateParams.put(COLUMN_HOURS 			, updated.getHours().encode());                           
 		updateParams.put(COLUMN_DESCRIPTION 	, updated.getDescription());                              
 		updateParams.put(COLUMN_TYPE 			, updated.getType());                                     
 		updateParams.put(COLUMN_ICON 			, updated.getIcon());                                     
 		updateParams.put(COLUMN_LATITUDE 		, updated.getLat());                                      
 		updateParams.put(COLUMN_LONGITUDE 		, updated.getLon());                                      
 		updateParams.put(COLUMN_BOOLEANS 		, booleansEncode(new boolean []
-		    {updated.favorite(), updated.mealPlanAccepted(), updated.mealMoneyAccepted(), updated.mealPlanAccepted(), updated.offCampus()}));                          
+		    {updated.favorite(), updated.mealPlanAccepted(), updated.mealMoneyAccepted(), updated.offCampus()}));                          
 		updateParams.put(COLUMN_PHONE_NUMBER 	, updated.getPhoneNumber());                              
 		updateParams.put(COLUMN_URL 			, updated.getUrl());                                      
-	
-		/*
-		if (updated.getMenu() != null) {
-			XStream xstream = new XStream(new DomDriver());
-			String menuf = xstream.toXML(updated.getMenu());
-			updateParams.put(COLUMN_MENU, menuf);
-		}
-		*/
+		updateParams.put(COLUMN_KEY 			, updated.getKey());
+		updateParams.put(COLUMN_HASH 			, updated.contentHash());
+		updateParams.put(COLUMN_MENU 			, updated.getMenu() == null ? null : updated.getMenu().encode());
 		
-		return _database.update(RESTAURANT_TABLE, updateParams,
-				COLUMN_ID + "=" + rowId, null) > 0;
+		return updateColumns(rowId, updateParams);
 	}
 	
 	/** 
@@ -289,8 +746,125 @@ public class DbAdapter {
 	 * 	
 	 */
 	protected boolean updateColumns(long rowId, ContentValues newVals) {
-		return _database.update(RESTAURANT_TABLE, newVals, 
-				COLUMN_ID + "=" + rowId, null) > 0;
+		boolean search = newVals.containsKey(COLUMN_NAME) || newVals.containsKey(COLUMN_TYPE) 
+				|| newVals.containsKey(COLUMN_DESCRIPTION) || newVals.containsKey(COLUMN_MENU);
+		if (!search)
+			return _database.update(RESTAURANT_TABLE, newVals, 
+					COLUMN_ID + "=" + rowId, null) > 0;
+		_database.beginTransaction();
+		try {
+			if (_database.update(RESTAURANT_TABLE, newVals, COLUMN_ID + "=" + rowId, null) == 0)
+				return false;
+			indexSearch(_database, rowId);
+			_database.setTransactionSuccessful();
+			return true;
+		} finally {
+			_database.endTransaction();
+		}
+	}
+	
+	// replaces the search table row of a restaurant
+	private static void writeSearch(SQLiteDatabase db, long rowId, Restaurant r) {
+		writeSearch(db, rowId, r.getName(), r.getType(), r.getDescription(), 
+				RestaurantSearch.menuText(r.getMenu()));
+	}
+	
+	// replaces the search table row of a restaurant with what its row has now
+	private static void indexSearch(SQLiteDatabase db, long rowId) {
+		Cursor c = db.query(RESTAURANT_TABLE, 
+				new String[] {COLUMN_NAME, COLUMN_TYPE, COLUMN_DESCRIPTION, COLUMN_MENU}, 
+				COLUMN_ID + "=" + rowId, null, null, null, null);
+		try {
+			if (c.moveToFirst())
+				writeSearch(db, rowId, c.getString(0), c.getString(1), c.getString(2), 
+						RestaurantSearch.menuText(c.isNull(3) ? null : RestaurantMenu.decode(c.getBlob(3))));
+		} finally {
+			c.close();
+		}
+	}
+	
+	/**
+	 * Replaces the search table row of a restaurant, run along with every write of the 
+	 * columns it indexes
+	 * @param db
+	 * 	the database to write to
+	 * @param rowId
+	 * 	value of the column COLUMN_ID for the restaurant
+	 * @param menu
+	 * 	the text of the menu, see RestaurantSearch.menuText()
+	 */
+	private static void writeSearch(SQLiteDatabase db, long rowId, String name, String type, 
+			String description, String menu) {
+		db.delete(SEARCH_TABLE, COLUMN_DOCID + "=" + rowId, null);
+		ContentValues values = new ContentValues(5);
+		values.put(COLUMN_DOCID 		, rowId);
+		values.put(COLUMN_NAME 			, name);
+		values.put(COLUMN_TYPE 			, type);
+		values.put(COLUMN_DESCRIPTION 	, description);
+		values.put(COLUMN_MENU 			, menu);
+		if (db.insert(SEARCH_TABLE, null, values) < 0)
+			throw new SQLException("writeSearch: could not index restaurant " + rowId);
+	}
+	
+	/**
+	 * Return a Cursor over the restaurants matching a full text query, in no particular 
+	 * order: the row id of each, and the FTS3 offsets() of its matches
+	 * @param match
+	 * 	the MATCH expression, see RestaurantSearch.toMatch()
+	 * @return the cursor
+	 */
+	protected Cursor getSearchCursor(String match) {
+		return _reader.rawQuery("SELECT " + COLUMN_DOCID + ", offsets(" + SEARCH_TABLE + ") FROM " 
+				+ SEARCH_TABLE + " WHERE " + SEARCH_TABLE + " MATCH ?", new String[] {match});
+	}
+	
+	/**
+	 * Updates many rows at once, each with its own values, in a single transaction; 
+	 * nothing is written unless every row is
+	 * @param rowIds
+	 * 	value of the column COLUMN_ID for each restaurant
+	 * @param newVals
+	 * 	the value map of each restaurant, in the order of rowIds
+	 * @return true if every row was updated
+	 */
+	protected boolean updateColumns(ArrayList<Long> rowIds, ArrayList<ContentValues> newVals) {
+		_database.beginTransaction();
+		try {
+			for (int i = 0; i < rowIds.size(); i++)
+				if (!updateColumns(rowIds.get(i), newVals.get(i)))
+					return false;
+			_database.setTransactionSuccessful();
+			return true;
+		} finally {
+			_database.endTransaction();
+		}
+	}
+	
+	/**
+	 * Sets the favorite flag of many restaurants in one transaction, leaving the
+	 * other booleans in COLUMN_BOOLEANS as they are; a row that no longer exists is
+	 * skipped
+	 * @param rowIds
+	 * 	value of the column COLUMN_ID for each restaurant
+	 * @param favorites
+	 * 	the favorite value of each restaurant, in the order of rowIds
+	 */
+	protected void setFavorites(long [] rowIds, boolean [] favorites) {
+		SQLiteStatement update = _database.compileStatement("UPDATE " + RESTAURANT_TABLE 
+				+ " SET " + COLUMN_BOOLEANS + "=(" + COLUMN_BOOLEANS + " & ~" + FAVORITE_FLAG 
+				+ ") | ? WHERE " + COLUMN_ID + "=?");
+		_database.beginTransaction();
+		try {
+			for (int i = 0; i < rowIds.length; i++) {
+				update.bindLong(1, favorites[i] ? FAVORITE_FLAG : 0);
+				update.bindLong(2, rowIds[i]);
+				update.execute();
+			}
+			_database.setTransactionSuccessful();
+		} finally {
+			_database.endTransaction();
+			update.close();
+		}
 	}
 	
 	/**
@@ -361,20 +935,53 @@ public class DbAdapter {
 				COLUMN_ID + "=" + rowId, null) > 0;
 	}
 
-	/** Used to open a readable database */
-	protected DbAdapter openReadable() throws SQLException {
-		_database = _openHelper.getReadableDatabase();
+	/**
+	 * Opens the database for reading and writing, once; the connection is meant to stay 
+	 * open until close() rather than be opened around each access. Write ahead logging 
+	 * is turned on when the SQLite underneath supports it (3.7 and later, older versions 
+	 * keep their rollback journal and answer with its mode), and reads then get their 
+	 * own connection
+	 */
+	protected DbAdapter open() throws SQLException {
+		if (isOpen())
+			return this;
+		_database = _openHelper.getWritableDatabase();
+		_reader = _database;
+		if (enableWriteAheadLog()) {
+			try {
+				_reader = SQLiteDatabase.openDatabase(_database.getPath(), null, 
+						SQLiteDatabase.OPEN_READONLY);
+			} catch (SQLException e) {
+				Log.w("Warning", "Unable to open a read connection, reading through the write one: " 
+						+ e.getMessage());
+			}
+		}
 		return this;
 	}
 
-	/** Used to open a writable database */
-	protected DbAdapter openWritable() throws SQLException {
-		_database = _openHelper.getWritableDatabase();
-		return this;
+	// asks for the write ahead journal, true if the database is now using it
+	private boolean enableWriteAheadLog() {
+		try {
+			Cursor c = _database.rawQuery("PRAGMA journal_mode=WAL", null);
+			try {
+				if (!c.moveToFirst() || !"wal".equalsIgnoreCase(c.getString(0)))
+					return false;
+			} finally {
+				c.close();
+			}
+			// commits only sync the log, the database is synced at checkpoints
+			_database.execSQL("PRAGMA synchronous=NORMAL");
+			return true;
+		} catch (SQLException e) {
+			return false;
+		}
 	}
 	
 	
 	
+	/** the bit of the favorite flag, the first boolean, in an encoded boolean array */
+	protected static final int FAVORITE_FLAG = 1 << 5;
+	
 	/** 
 	 * Encodes the given array of booleans into an integer
 	 * Decode with boolenasDecode()
@@ -408,26 +1015,6 @@ public class DbAdapter {
 		return out;
 	}
 	
-	/**
-	 * Generates RestaurantHours from database hours xml data
-	 * @param xmlFromDatabase
-	 * 		contents of a database COLUMN_HOUR
-	 * @return
-	 *		equivalent RestaurantHours object
-	 */
-	/*
-	protected static RestaurantMenu getMenuFromXml(String xmlFromDatabase) {
-		if (xmlFromDatabase == null){
-			Log.i("DBAdapter", "getMenuFromXml null pointer");
-			return null;
-		}
-		
-		XStream xs = new XStream(new DomDriver());
-		return (RestaurantMenu) xs.fromXML(xmlFromDatabase);
-		
-	}
-	*/
-	
 //
 //	/**
 //	 * not needed by DBWrapper
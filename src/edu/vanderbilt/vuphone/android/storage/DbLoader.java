@@ -0,0 +1,273 @@
+package edu.vanderbilt.vuphone.android.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+/**
+ * Runs the database reads and writes behind DbWrapper off the UI thread. Each request runs
+ * on one background thread, in the order made, and its result is handed to a Callback on the
+ * main thread. When what is asked for is already in the cache the callback is called right
+ * away, so an activity that comes back finds its data without waiting a frame.
+ *
+ * Requests are made for an owner, usually the activity that shows the result, and
+ * cancel(owner) drops every request of that owner still pending; call it from onDestroy()
+ * so no callback reaches a destroyed activity. A request already running is left to finish,
+ * its result is kept in the cache but not delivered.
+ *
+ * All the methods are to be called from the main thread.
+ *
+ */
+public class DbLoader {
+
+	/** receives the result of a request on the main thread */
+	public interface Callback<T> {
+		public void onLoaded(T result);
+	}
+
+	/** a request made to the loader, which can be cancelled until its callback is called */
+	public static final class Request {
+		private final Object _owner;
+		private Future<?> _future;
+		private boolean _cancelled;
+		private boolean _done;
+
+		private Request(Object owner) {
+			_owner = owner;
+		}
+
+		// keeps the callback from being called, and the request from running if it has not started
+		public void cancel() {
+			if (_done)
+				return;
+			_cancelled = true;
+			if (_future != null)
+				_future.cancel(false); // SQLite is not to be interrupted mid statement
+			finished(this);
+		}
+
+		public boolean isCancelled() {
+			return _cancelled;
+		}
+
+		// true once the callback was called
+		public boolean isDone() {
+			return _done;
+		}
+	}
+
+	private static final String TAG = "DbLoader";
+
+	private static ExecutorService executor;
+	private static Handler handler;
+
+	/** the requests pending for each owner */
+	private static final HashMap<Object, ArrayList<Request>> pending =
+		new HashMap<Object, ArrayList<Request>>();
+
+	/**
+	 * Caches the main data, what the list needs, of every restaurant
+	 * @param owner
+	 * 	what the request is made for, see cancel()
+	 * @param callback
+	 * 	called once the data is cached
+	 */
+	public static Request loadMainData(Object owner, Callback<Void> callback) {
+		if (DbWrapper.isMainDataCached())
+			return done(owner, callback, null);
+		return submit(owner, new Callable<Void>() {
+			public Void call() {
+				DbWrapper.cacheMainData();
+				return null;
+			}
+		}, callback);
+	}
+
+	/**
+	 * Caches the map data, as well as the main data, of every restaurant
+	 * @param owner
+	 * 	what the request is made for, see cancel()
+	 * @param callback
+	 * 	called once the data is cached
+	 */
+	public static Request loadMapData(Object owner, Callback<Void> callback) {
+		if (DbWrapper.isMapDataCached())
+			return done(owner, callback, null);
+		return submit(owner, new Callable<Void>() {
+			public Void call() {
+				DbWrapper.cacheMapData();
+				return null;
+			}
+		}, callback);
+	}
+
+	/**
+	 * Caches all the data of a restaurant
+	 * @param owner
+	 * 	what the request is made for, see cancel()
+	 * @param rowID
+	 * 	id of the restaurant
+	 * @param callback
+	 * 	called with the restaurant
+	 */
+	public static Request loadRestaurant(Object owner, final long rowID, Callback<Restaurant> callback) {
+		if (DbWrapper.isRestaurantCached(rowID))
+			return done(owner, callback, DbWrapper.get(rowID));
+		return submit(owner, new Callable<Restaurant>() {
+			public Restaurant call() {
+				return DbWrapper.get(rowID);
+			}
+		}, callback);
+	}
+
+	/**
+	 * Reads the details of restaurants likely to be opened next, so their pages open without
+	 * waiting on the database. Nothing is delivered and the request is for no owner; the
+	 * restaurants already cached are skipped, and at most DetailCache.PREFETCH_MAX others,
+	 * the first given, are read
+	 * @param rowIDs
+	 * 	ids of the restaurants, most likely first
+	 */
+	public static void prefetch(long [] rowIDs) {
+		int n = 0;
+		long [] found = new long[rowIDs.length];
+		for (int i = 0; i < rowIDs.length; i++)
+			if (!DbWrapper.isRestaurantCached(rowIDs[i]))
+				found[n++] = rowIDs[i];
+		if (n == 0)
+			return;
+		final long [] uncached = new long[n];
+		System.arraycopy(found, 0, uncached, 0, n);
+		execute(new Runnable() {
+			public void run() {
+				DbWrapper.cacheRestaurants(uncached);
+			}
+		});
+	}
+
+	/**
+	 * Brings the database in line with the restaurants shipped with the app, see
+	 * DbWrapper.reseed(Context)
+	 * @param owner
+	 * 	what the request is made for, see cancel()
+	 * @param context
+	 * 	any context of the application, to read the shipped data from its assets
+	 * @param callback
+	 * 	called with true if the database was changed, may be null
+	 */
+	public static Request reseed(Object owner, final Context context, Callback<Boolean> callback) {
+		return submit(owner, new Callable<Boolean>() {
+			public Boolean call() {
+				return DbWrapper.reseed(context);
+			}
+		}, callback);
+	}
+
+	/**
+	 * Cancels every pending request of an owner
+	 * @param owner
+	 * 	the owner the requests were made for
+	 */
+	public static void cancel(Object owner) {
+		ArrayList<Request> requests = pending.remove(owner);
+		if (requests == null)
+			return;
+		for (int i = 0; i < requests.size(); i++)
+			requests.get(i).cancel();
+	}
+
+	// runs a task in the background for no owner, after the requests already made
+	protected static void execute(Runnable task) {
+		initialize();
+		executor.execute(task);
+	}
+
+	// runs the task in the background and posts its result to the callback
+	private static <T> Request submit(Object owner, final Callable<T> task, final Callback<T> callback) {
+		initialize();
+		final Request request = new Request(owner);
+		ArrayList<Request> requests = pending.get(owner);
+		if (requests == null) {
+			requests = new ArrayList<Request>(2);
+			pending.put(owner, requests);
+		}
+		requests.add(request);
+		request._future = executor.submit(new Runnable() {
+			public void run() {
+				T result;
+				try {
+					result = task.call();
+				} catch (final Exception e) {
+					Log.e(TAG, "Database request failed", e);
+					// thrown on the main thread, as it was when the access was made there,
+					// unless whoever made the request is gone
+					handler.post(new Runnable() {
+						public void run() {
+							if (!request._cancelled)
+								throw new RuntimeException("Database request failed", e);
+						}
+					});
+					return;
+				}
+				final T loaded = result;
+				handler.post(new Runnable() {
+					public void run() {
+						deliver(request, callback, loaded);
+					}
+				});
+			}
+		});
+		return request;
+	}
+
+	// calls back right away for what needs no loading
+	private static <T> Request done(Object owner, Callback<T> callback, T result) {
+		Request request = new Request(owner);
+		deliver(request, callback, result);
+		return request;
+	}
+
+	private static <T> void deliver(Request request, Callback<T> callback, T result) {
+		if (request._cancelled)
+			return;
+		request._done = true;
+		finished(request);
+		if (callback != null)
+			callback.onLoaded(result);
+	}
+
+	private static void finished(Request request) {
+		ArrayList<Request> requests = pending.get(request._owner);
+		if (requests != null && requests.remove(request) && requests.isEmpty())
+			pending.remove(request._owner);
+	}
+
+	private static void initialize() {
+		if (executor != null)
+			return;
+		handler = new Handler(Looper.getMainLooper());
+		// one thread, so requests run in order and SQLite sees a single writer
+		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(final Runnable r) {
+				Thread thread = new Thread(new Runnable() {
+					public void run() {
+						Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+						r.run();
+					}
+				}, "DbLoader");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+}
@@ -1,13 +1,25 @@
 package edu.vanderbilt.vuphone.android.storage;
 
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
+import android.content.ContentValues;
+import android.content.Context;
 import android.database.Cursor;
 import android.util.Log;
 import edu.vanderbilt.vuphone.android.dining.Main;
+import edu.vanderbilt.vuphone.android.objects.HoursOverride;
+import edu.vanderbilt.vuphone.android.objects.HoursQuery;
 import edu.vanderbilt.vuphone.android.objects.RestaurantHours;
+import edu.vanderbilt.vuphone.android.objects.RestaurantMenu;
+import edu.vanderbilt.vuphone.android.objects.TransitionScheduler;
 
 
 
@@ -15,44 +27,35 @@ import edu.vanderbilt.vuphone.android.objects.RestaurantHours;
 /** 
  * @author austin
  *	This class abstracts database access and caches multiple like accesses.
- *	Accessed through the Restaurant class
+ *	Accessed through the Restaurant class, and through DbLoader to fill the cache
+ *	off the UI thread. The cache is an immutable RestaurantTable: reads take the 
+ *	current one without locking, and changes, which hold the class lock so only one
+ *	runs at a time, build the next version and swap it in
  * 
  */
 public class DbWrapper {
 
 	
-	/** State codes for the underlying DbAdapter */
-	private static final int CLOSED = 0;
-	private static final int READABLE = 1;
-	private static final int WRITABLE = 2;
-	
-	/** the adapter whose access this class aims to intelligently cache */
+	/** the adapter whose access this class aims to intelligently cache, open from 
+	 * the first access until close() */
 	private static DbAdapter adapter;
 	
-	/** the state of read/write access of the adapter */
-	private static int state;
-	
-	/** The array of rowIDs, necessarily in ascending order */
-	private static ArrayList<Long> IDs;
-		
-	/** The cache of Restaurants, whose data is completed as access and caching calls are made */
-	private static ArrayList<Restaurant> cache;
+	/** the current version of the cache, replaced whole by every change, see RestaurantTable */
+	private static final AtomicReference<RestaurantTable> table = 
+		new AtomicReference<RestaurantTable>(RestaurantTable.EMPTY);
 	
-	/** indicates whether IDs is nonnull */
-	private static boolean idsCached = false;
+	/** set of items to update or revert in the database and cache, once commit() is called */
+	private static ArrayList<UpdateItem> updated;
 	
-	/** indicates the restaurant data needed for the first application page has been cached */
-	private static boolean mainDataCached = false;
+	/** favorite changes not yet written to the database, see FavoritesJournal */
+	private static FavoritesJournal favorites;
 	
-	/** indicates the restaurant data needed for the map page has been cached */
-	private static boolean mapDataCached = false;
+	/** the data read along with the IDs and main data when the cache is first filled, 
+	 * 	a combination of the CacheLoader projection flags */
+	private static int warmUp = CacheLoader.MAP;
 	
-	/** indicated the restaurant data for each restaurant, index corresponding to IDs and cache,
-	 * 	has all been cached	 */
-	private static ArrayList<Boolean> cached;
-	
-	/** set of items to update or revert in the database and cache, once commit() is called */
-	private static ArrayList<UpdateItem> updated;
+	/** which restaurants have their details cached, kept to DetailCache.MAX_BYTES */
+	private static final DetailCache details = new DetailCache(DetailCache.MAX_BYTES);
 	
 
 	/**
@@ -61,9 +64,8 @@ public class DbWrapper {
 	 * 		THIS CANNOT BE MODIFIED, OR UNDEFINED BEHAVIOR MAY OCCUR
 	 * to modify the list, see copyIDs()
 	 */
-	protected static ArrayList<Long> getIDs() {
-		cacheIDs();
-		return IDs;
+	protected static List<Long> getIDs() {
+		return getTable().getIDs();
 	}
 	
 	/** returns a sorted array of all the restaurant IDs
@@ -71,10 +73,8 @@ public class DbWrapper {
 	 * @return the array of IDs. This can be safely modified, and will not
 	 * be updated if the underlying database cache changes
 	 */
-	@SuppressWarnings("unchecked")
 	protected static ArrayList<Long> copyIDs() {
-		cacheIDs();
-		return (ArrayList<Long>) IDs.clone();
+		return new ArrayList<Long>(getTable().getIDs());
 	}
 	
 	
@@ -86,8 +86,14 @@ public class DbWrapper {
 	 * 	the Restaurant in cache; it cannot be modified
 	 */
 	protected static Restaurant get(long rowID) { 
-		int i = cacheRestaurant(rowID);
-		return cache.get(i);
+		RestaurantTable t = table.get();
+		int i = t.indexOf(rowID);
+		if (!t.hasMainData() || i < 0 || !t.isComplete(i)) {
+			cacheRestaurant(rowID);
+			t = table.get();
+			i = index(t, rowID);
+		} else details.touch(rowID);
+		return t.get(i);
 	}
 	
 	
@@ -100,8 +106,7 @@ public class DbWrapper {
 	 * 	the name of the restaurant
 	 */
 	protected static String getName(long rowID) {
-		cacheMainData();
-		return cache.get(getI(rowID)).getName();
+		return mainData(rowID).getName();
 	}
 
 	/** 
@@ -113,8 +118,7 @@ public class DbWrapper {
 	 * 	the latitude of the restaurant
 	 */
 	protected static int getLat(long rowID) {
-		cacheMapData();
-		return cache.get(getI(rowID)).getLat();
+		return mapData(rowID).getLat();
 	}
 
 	/** 
@@ -126,8 +130,7 @@ public class DbWrapper {
 	 * 	the longitude of the restaurant
 	 */
 	protected static int getLon(long rowID) {
-		cacheMapData();
-		return cache.get(getI(rowID)).getLon();
+		return mapData(rowID).getLon();
 	}
 
 
@@ -140,8 +143,7 @@ public class DbWrapper {
 	 * 	the hours of the restaurant
 	 */
 	protected static RestaurantHours getHours(long rowID) {
-		cacheMainData();
-		return cache.get(getI(rowID)).getHours();
+		return mainData(rowID).getHours();
 	}
 
 	/** 
@@ -153,8 +155,7 @@ public class DbWrapper {
 	 * 	the type of the restaurant
 	 */
 	protected static String getType(long rowID) { 
-		cacheMainData();
-		return cache.get(getI(rowID)).getType();
+		return mainData(rowID).getType();
 	}
 
 	/** 
@@ -166,8 +167,7 @@ public class DbWrapper {
 	 * 	the icon of the restaurant
 	 */
 	protected static int getIcon(long rowID) {
-		cacheMapData();
-		return cache.get(getI(rowID)).getIcon();
+		return mapData(rowID).getIcon();
 	}
 
 	/** 
@@ -179,8 +179,7 @@ public class DbWrapper {
 	 * 	whether or not the restaurant is a favorite
 	 */
 	protected static boolean favorite(long rowID) {
-		cacheMainData();
-		return cache.get(getI(rowID)).favorite();
+		return mainData(rowID).favorite();
 	}
 	
 	/** 
@@ -192,8 +191,7 @@ public class DbWrapper {
 	 * 	whether or not the restaurant accepts the meal plan
 	 */
 	protected static boolean mealPlanAccepted(long rowID) {
-		cacheMainData();
-		return cache.get(getI(rowID)).mealPlanAccepted();
+		return mainData(rowID).mealPlanAccepted();
 	}
 
 	/** 
@@ -205,8 +203,7 @@ public class DbWrapper {
 	 * 	whether or not the restaurant accepts meal money
 	 */
 	protected static boolean mealMoneyAccepted(long rowID) {
-		cacheMainData();
-		return cache.get(getI(rowID)).mealMoneyAccepted();
+		return mainData(rowID).mealMoneyAccepted();
 	}
 
 	/** 
@@ -218,8 +215,7 @@ public class DbWrapper {
 	 * 	whether or not the restaurant is on the card
 	 */
 	protected static boolean onTheCard(long rowID) { 
-		cacheMainData();
-		return cache.get(getI(rowID)).onTheCard();
+		return mainData(rowID).onTheCard();
 	}
 
 	/** 
@@ -231,8 +227,7 @@ public class DbWrapper {
 	 * 	whether or not the restaurant is a Taste of Nashville participant
 	 */
 	protected static boolean tasteOfNashville(long rowID) {
-		cacheMainData();
-		return cache.get(getI(rowID)).tasteOfNashville();
+		return mainData(rowID).tasteOfNashville();
 	}
 
 	/** 
@@ -244,8 +239,7 @@ public class DbWrapper {
 	 * 	whether or not the restaurant is off campus
 	 */
 	protected static boolean offCampus(long rowID) {
-		cacheMainData();
-		return cache.get(getI(rowID)).offCampus();
+		return mainData(rowID).offCampus();
 	}
 	
 	
@@ -256,24 +250,91 @@ public class DbWrapper {
 	 * @return
 	 * 	the column id of the restaurant, or -1 if unsuccessful
 	 */
-	protected static long create(Restaurant r) {
-		makeWritable();
+	protected static synchronized long create(Restaurant r) {
+		open();
 		long rID = adapter.createRestaurant(r);
 		if (rID >= 0) {
-			if (idsCached)
-				IDs.add(rID);
-				// could potentially be a problem if this addition causes IDs
-				// not to be sorted. (Shouldnt in theory since ID is set to 
-				// autoincrement
-			if (mainDataCached) {
-				cache.add(r);
-				cached.add(true);
+			RestaurantTable t = table.get();
+			if (t.hasMainData()) {
+				table.set(t.withAdded(rID, r.copy(), true));
+				details.add(rID, r);
+				trimDetails();
 			}
+			hoursChanged();
 			return rID;
 		} else
 			return -1;
 	}
 	
+	/**
+	 * Creates many restaurants at once, in a single transaction. The cache is not 
+	 * updated row by row, it is dropped and read again on the next access
+	 * @param restaurants
+	 * 	the restaurants to create
+	 * @return
+	 * 	the column id of each restaurant, in the order given
+	 */
+	protected static synchronized long[] createAll(ArrayList<Restaurant> restaurants) {
+		open();
+		long [] rIDs = adapter.createRestaurants(restaurants);
+		resetRestaurantCache();
+		return rIDs;
+	}
+	
+	/**
+	 * Brings the database in line with the restaurants shipped with the app, the snapshot 
+	 * asset or, if the package has none, StaticRestaurantData. The snapshot carries the 
+	 * hash of its data, so when it is what was seeded last time, which is nearly always, 
+	 * this is a single hash comparison and no restaurant is built
+	 * @param context
+	 * 	any context of the application
+	 * @return true if the database was changed
+	 */
+	protected static synchronized boolean reseed(Context context) {
+		RestaurantSnapshot snapshot = RestaurantSnapshot.open(context);
+		if (snapshot == null)
+			return reseed(new StaticRestaurantData().buildAll());
+		long seedHash = snapshot.getSeedHash(context);
+		open();
+		if (adapter.getSeedHash() == seedHash)
+			return false;
+		return reseed(snapshot.getAll(context), seedHash);
+	}
+	
+	/**
+	 * Brings the database in line with the restaurants given. When they are what was 
+	 * seeded last time this is a comparison of their hash; otherwise only the restaurants 
+	 * that were added, changed or removed are written, in one transaction, and favorites 
+	 * are kept. See DbAdapter.reseed()
+	 * @param shipped
+	 * 	every restaurant shipped with the app
+	 * @return true if the database was changed
+	 */
+	protected static synchronized boolean reseed(ArrayList<Restaurant> shipped) {
+		long seedHash = 17;
+		for (int i = 0; i < shipped.size(); i++)
+			seedHash = seedHash * 31 + shipped.get(i).contentHash();
+		if (seedHash == 0) // 0 is stored for nothing seeded
+			seedHash = 1;
+		return reseed(shipped, seedHash);
+	}
+	
+	// reseeds with the restaurants unless the hash is the one stored by the last reseed
+	private static boolean reseed(ArrayList<Restaurant> shipped, long seedHash) {
+		open();
+		if (adapter.getSeedHash() == seedHash)
+			return false;
+		int [] changes = adapter.reseed(shipped, seedHash);
+		Log.i("DbWrapper", "reseeded: " + changes[0] + " inserted, " + changes[1] + " updated, " 
+				+ changes[2] + " deleted");
+		// the new version is read before it replaces the cache, so readers keep the old one
+		// meanwhile rather than finding it empty and waiting on the lock to read it
+		if (table.get().hasMainData())
+			load();
+		else resetRestaurantCache();
+		return true;
+	}
+	
 	/**
 	 * Updates both the database and cache immediately with new values
 	 * @param rowID
@@ -282,16 +343,16 @@ public class DbWrapper {
 	 * 	restaurant containing the new values for the database
 	 * @return true if the operation was a success
 	 */
-	protected static boolean update(long rowID, Restaurant updated) {
-		makeWritable();
-		int i = getI(rowID);
-		if (i<0)
-			return false;
+	protected static synchronized boolean update(long rowID, Restaurant updated) {
+		open();
+		RestaurantTable t = getTable();
+		int i = index(t, rowID);
 		boolean success =  adapter.updateRestaurant(rowID, updated); 
-		close();
-		if (mainDataCached && success) {
-			cache.set(i, updated); 
-			cached.set(i, true);
+		if (success) {
+			table.set(t.withRestaurant(i, updated.copy(), true));
+			details.add(rowID, updated);
+			trimDetails();
+			hoursChanged();
 		}
 		return success;
 	}
@@ -299,7 +360,9 @@ public class DbWrapper {
 	/** 
 	 * Updates the local cache with a new favorite value for a restaurant, and enters the change 
 	 * into a list of updates.
-	 * Call commit() to write changes to database or revert() to revert to old settings
+	 * Unlike other fields the change is kept right away, in the favorites journal, and written 
+	 * to the database shortly after in the background; commit() needs not be called, though 
+	 * revert() still undoes it
 	 * @param rowID
 	 * 	id of restaurant to modify
 	 * @param favorite
@@ -307,44 +370,144 @@ public class DbWrapper {
 	 * @return true if anything was changed
 	 */
 	protected static boolean setFavorite(long rowID, boolean favorite) {
-		cacheMainData();
-		int i = getI(rowID);
-		if (i<0 || cache.get(i).favorite()==favorite)
+		return set(rowID, UpdateItem.FAVORITE, favorite);
+	}
+	
+	/*
+	 * Updates the local cache with a new value for a field of a restaurant, and enters the 
+	 * change into a list of updates.
+	 * Call commit() to write changes to database or revert() to revert to old settings.
+	 * Each returns true if anything was changed
+	 */
+	protected static boolean setName(long rowID, String name)				{return set(rowID, UpdateItem.NAME, name);}
+	protected static boolean setHours(long rowID, RestaurantHours hours)	{return set(rowID, UpdateItem.HOURS, hours);}
+	protected static boolean setMenu(long rowID, RestaurantMenu menu)		{return set(rowID, UpdateItem.MENU, menu);}
+	protected static boolean setDescription(long rowID, String desc)		{return set(rowID, UpdateItem.DESCRIPTION, desc);}
+	protected static boolean setType(long rowID, String type)				{return set(rowID, UpdateItem.TYPE, type);}
+	protected static boolean setIcon(long rowID, int iconID)				{return set(rowID, UpdateItem.ICON, iconID);}
+	protected static boolean setLocation(long rowID, int lat, int lon) {
+		boolean changed = set(rowID, UpdateItem.LATITUDE, lat);
+		return set(rowID, UpdateItem.LONGITUDE, lon) || changed;
+	}
+	protected static boolean setPlanAccepted(long rowID, boolean accepted)	{return set(rowID, UpdateItem.PLAN_ACCEPTED, accepted);}
+	protected static boolean setMoneyAccepted(long rowID, boolean accepted){return set(rowID, UpdateItem.MONEY_ACCEPTED, accepted);}
+	protected static boolean setOffCampus(long rowID, boolean off)			{return set(rowID, UpdateItem.OFF_CAMPUS, off);}
+	protected static boolean setPhoneNumber(long rowID, String number)		{return set(rowID, UpdateItem.PHONE_NUMBER, number);}
+	protected static boolean setUrl(long rowID, String url)					{return set(rowID, UpdateItem.URL, url);}
+	
+	// sets a field, value of the type the Restaurant getter of the field returns (boxed)
+	private static synchronized boolean set(long rowID, int field, Object value) {
+		RestaurantTable t = getTable();
+		int i = t.indexOf(rowID);
+		if (i<0)
+			return false;
+		Object old = UpdateItem.get(t.get(i), field);
+		if (UpdateItem.same(old, value))
 			return false;
 		initializeUpdateStack();
-		updated.add(new UpdateItem(i, UpdateItem.FAVORITE, !favorite));
-		cache.get(i).setFavorite(favorite);
+		updated.add(new UpdateItem(rowID, field, old, value));
+		setCached(t, i, field, value);
+		if (field == UpdateItem.FAVORITE)
+			favorites().append(rowID, (Boolean)value);
 		return true;
 	}
 	
+	// publishes the next table, with a copy of the restaurant at i whose field is changed
+	private static void setCached(RestaurantTable t, int i, int field, Object value) {
+		Restaurant r = t.get(i).copy();
+		UpdateItem.set(r, field, value);
+		table.set(t.withRestaurant(i, r, t.isComplete(i)));
+		if (field == UpdateItem.HOURS)
+			hoursChanged();
+	}
+	
 	/**
 	 * Commits to the database all the changes previously made to the cache
-	 * with setX()
-	 * @return true if anything was changed
+	 * with setX(). The changes are coalesced by restaurant: each restaurant that 
+	 * has a field whose value now differs from before the first change is written 
+	 * with one update, and all of them in one transaction. Fields changed and then 
+	 * changed back, like a favorite toggled twice, are not written at all. Favorites are 
+	 * already in the favorites journal, they are left to it and only flushed sooner
+	 * @return the fields changed for each row id, as a mask of (1 << UpdateItem field 
+	 * 	constant); empty if nothing was changed
 	 */
-	protected static boolean commit() {
+	protected static synchronized HashMap<Long, Integer> commit() {
+		HashMap<Long, Integer> summary = new HashMap<Long, Integer>();
 		if (updated == null || updated.isEmpty())
-			return false;
-		else
-			makeWritable();
+			return summary;
+		// the value of each changed field before its first change, by row
+		LinkedHashMap<Long, HashMap<Integer, Object>> original = 
+			new LinkedHashMap<Long, HashMap<Integer, Object>>();
 		for (int i = 0; i < updated.size(); i++) {
-			if (!updated.get(i).commit())
-				throw new RuntimeException("Unable to commit all changes, undefined database behavior");
+			UpdateItem item = updated.get(i);
+			HashMap<Integer, Object> fields = original.get(item._rowID);
+			if (fields == null) {
+				fields = new HashMap<Integer, Object>();
+				original.put(item._rowID, fields);
+			}
+			if (!fields.containsKey(item._field))
+				fields.put(item._field, item._oldVal);
 		}
+		RestaurantTable t = getTable();
+		ArrayList<Long> rows = new ArrayList<Long>(original.size());
+		ArrayList<ContentValues> values = new ArrayList<ContentValues>(original.size());
+		for (Map.Entry<Long, HashMap<Integer, Object>> row : original.entrySet()) {
+			int i = t.indexOf(row.getKey());
+			if (i < 0)
+				continue; // deleted since
+			Restaurant r = t.get(i);
+			ContentValues rowValues = new ContentValues();
+			int mask = 0;
+			for (Map.Entry<Integer, Object> field : row.getValue().entrySet()) {
+				if (UpdateItem.same(UpdateItem.get(r, field.getKey()), field.getValue()))
+					continue;
+				if (field.getKey() != UpdateItem.FAVORITE)
+					UpdateItem.put(rowValues, r, field.getKey());
+				mask |= 1 << field.getKey();
+			}
+			if (mask == 0)
+				continue;
+			summary.put(row.getKey(), mask);
+			if (mask == 1 << UpdateItem.FAVORITE)
+				continue;
+			if ((mask & ~UpdateItem.NOT_SHIPPED) != 0) {
+				// shipped data changed, keep the key and hash in step as updateRestaurant() does
+				rowValues.put(DbAdapter.COLUMN_KEY, r.getKey());
+				rowValues.put(DbAdapter.COLUMN_HASH, r.contentHash());
+			}
+			rows.add(row.getKey());
+			values.add(rowValues);
+		}
+		if (!rows.isEmpty()) {
+			open();
+			if (!adapter.updateColumns(rows, values))
+				throw new RuntimeException("Unable to commit all changes, nothing was written");
+		}
+		if (favorites != null)
+			favorites.flushSoon();
 		updated = null;
-		close();
-		return true;
+		trimDetails(); // changed details are no longer held in the cache
+		return summary;
 	}
 
 	/**
 	 * Undos the changes previously made to the cache with setX() since the last
 	 * call to commit() or revert()
 	 */
-	protected static void revert() {
+	protected static synchronized void revert() {
 		if (updated == null)
 			return;
-		for (int i = 0; i < updated.size(); i++)
-			updated.get(i).revert();
+		// latest first, so each field ends up with its value from before the first change
+		for (int i = updated.size() - 1; i >= 0; i--) {
+			UpdateItem item = updated.get(i);
+			RestaurantTable t = table.get();
+			int index = t.indexOf(item._rowID);
+			if (index >= 0)
+				setCached(t, index, item._field, item._oldVal);
+			if (item._field == UpdateItem.FAVORITE)
+				favorites().append(item._rowID, (Boolean)item._oldVal);
+		}
+		updated = null;
 	}
 	
 	/**
@@ -353,17 +516,15 @@ public class DbWrapper {
 	 * 	id of restaurant to delete
 	 * @return true if successful
 	 */
-	protected static boolean delete(long rowID) {
-		makeWritable();
+	protected static synchronized boolean delete(long rowID) {
+		open();
 		if (adapter.deleteRestaurant(rowID)) {
-			int i = getIDs().indexOf(rowID);
-			if (i>=0) {
-				if (mainDataCached) {
-					cache.remove(i);
-					cached.remove(i);
-				}
-				IDs.remove(i); // IDs cached with getIDs() above
-			}
+			RestaurantTable t = table.get();
+			int i = t.indexOf(rowID);
+			if (i>=0)
+				table.set(t.withRemoved(i));
+			details.remove(rowID);
+			hoursChanged();
 			return true;
 		} else return false;
 	}
@@ -372,111 +533,299 @@ public class DbWrapper {
 	 * Deletes every restaurant from the database and clears the cache
 	 * @return true if successful
 	 */
-	protected static boolean deleteAll() {
-		makeWritable();
+	protected static synchronized boolean deleteAll() {
+		open();
 		if (adapter.deleteAllRestaurants()) {
-			idsCached = false;
-			mainDataCached = false;
-			mapDataCached = false;
+			resetRestaurantCache();
 			return true;
 		} else return false;
 	}
 	
 	/**
-	 * Populates IDs with all the restaurant ids and sorts
+	 * Returns the current version of the cache, with the main data of every restaurant, 
+	 * reading it first if it is not cached. The table does not change, hold on to it to 
+	 * read several things from the same version. Once the main data is cached this takes 
+	 * no lock, whatever the DbLoader thread is doing
+	 */
+	protected static RestaurantTable getTable() {
+		RestaurantTable t = table.get();
+		if (t.hasMainData())
+			return t;
+		cacheMainData();
+		return table.get();
+	}
+	
+	// returns the cached restaurant, with at least its main data
+	private static Restaurant mainData(long rowID) {
+		RestaurantTable t = getTable();
+		return t.get(index(t, rowID));
+	}
+	
+	// returns the cached restaurant, with at least its main and map data
+	private static Restaurant mapData(long rowID) {
+		RestaurantTable t = table.get();
+		if (!t.hasMapData()) {
+			cacheMapData();
+			t = table.get();
+		}
+		return t.get(index(t, rowID));
+	}
+	
+	/**
+	 * Populates IDs with all the restaurant ids, sorted. They are read together 
+	 * with the main data, see load()
 	 */
 	protected static void cacheIDs() {
-		if (idsCached)
+		cacheMainData();
+	}
+	
+	/**
+	 * Populates the cache with all the data needed to render the Main activity
+	 */
+	protected static synchronized void cacheMainData() {
+		if (table.get().hasMainData())
 			return;
-		IDs = new ArrayList<Long>();
-		makeReadable();
-		Cursor c = adapter.getCursor(new String[] {DbAdapter.COLUMN_ID});
+		load();
+	}
+	
+	/** Returns true if the main data is cached, and reading it will not touch the database */
+	protected static boolean isMainDataCached() {
+		return table.get().hasMainData();
+	}
+	
+	/** Returns true if the map data is cached, and reading it will not touch the database */
+	protected static boolean isMapDataCached() {
+		return table.get().hasMapData();
+	}
+	
+	/** Returns true if all the data of the restaurant is cached, see cacheRestaurant() */
+	protected static boolean isRestaurantCached(long rowID) {
+		RestaurantTable t = table.get();
+		int i = t.indexOf(rowID);
+		return t.hasMainData() && i >= 0 && t.isComplete(i);
+	}
+	
+	/**
+	 * Sets what is read along with the IDs and main data the next time the cache is filled
+	 * @param projection
+	 * 	a combination of CacheLoader.MAP and CacheLoader.DETAILS, 0 for only the main data
+	 */
+	protected static synchronized void setWarmUp(int projection) {
+		warmUp = projection & (CacheLoader.MAP | CacheLoader.DETAILS);
+	}
+	
+	/**
+	 * Reads the IDs, the main data of every restaurant and the data in the warm up 
+	 * projection, in one pass over the table, and publishes them as the next version 
+	 * of the cache. The rows come in row id order, so IDs comes out sorted and a row's 
+	 * cache index is its position
+	 */
+	private static void load() {
+		int projection = CacheLoader.MAIN | warmUp;
+		boolean complete = (projection & (CacheLoader.MAP | CacheLoader.DETAILS)) 
+				== (CacheLoader.MAP | CacheLoader.DETAILS);
+		open();
+		// the cache is about to be replaced with what the database has
+		writeFavorites();
+		Cursor c = adapter.getCursor(CacheLoader.columns(projection));
+		int count = c.getCount();
+		long [] IDs = new long[count];
+		Restaurant [] restaurants = new Restaurant[count];
+		int i = 0;
 		if (c.moveToFirst()) {
+			CacheLoader loader = new CacheLoader(c, projection);
 			do {
-				IDs.add(c.getLong(c.getColumnIndex(DbAdapter.COLUMN_ID)));
+				Restaurant current = new Restaurant();
+				loader.fill(current);
+				IDs[i] = loader.id();
+				restaurants[i++] = current;
 			} while (c.moveToNext());
 		}
-		Collections.sort(IDs);
-		idsCached = true;
 		c.close();
+		BitSet completed = new BitSet(count);
+		if (complete)
+			completed.set(0, count);
+		// nothing else sees these restaurants yet, so the overrides are set on them in place
+		cacheOverrides(IDs, restaurants);
+		for (i = 0; i < count; i++)
+			applyPending(IDs[i], restaurants[i]);
+		table.set(new RestaurantTable(table.get().getVersion() + 1, IDs, restaurants, completed, 
+				true, (projection & CacheLoader.MAP) != 0));
+		details.clear();
+		if (complete) {
+			for (i = 0; i < count; i++)
+				details.add(IDs[i], restaurants[i]);
+			trimDetails();
+		}
+		hoursChanged();
 	}
 	
 	/**
-	 * Populates the cache with all the data needed to render the Main activity
+	 * Sets the values of the changes not committed yet on a restaurant just read from the
+	 * database, which has what was there before them. Without this a reload, like the one
+	 * after a reseed, would drop them from the cache, and commit() would find nothing to write
+	 * @param rowID
+	 * 	id of the restaurant
+	 * @param r
+	 * 	the restaurant, not yet in a published table
 	 */
-	protected static void cacheMainData() {
-		if (mainDataCached)
+	private static void applyPending(long rowID, Restaurant r) {
+		if (updated == null)
 			return;
-		resetRestaurantCache(); // ensures IDs are cached
-		makeReadable();
-		Cursor c = adapter.getCursor(new String[] {
-			DbAdapter.COLUMN_NAME,			
-			DbAdapter.COLUMN_HOUR_SUN, 	
-			DbAdapter.COLUMN_HOUR_MON, 	
-			DbAdapter.COLUMN_HOUR_TUE, 	
-			DbAdapter.COLUMN_HOUR_WED, 	
-			DbAdapter.COLUMN_HOUR_THU, 	
-			DbAdapter.COLUMN_HOUR_FRI, 	
-			DbAdapter.COLUMN_HOUR_SAT, 	
-			DbAdapter.COLUMN_BOOLEANS,
-			DbAdapter.COLUMN_TYPE});
+		// in the order made, so the latest value of a field wins
+		for (int i = 0; i < updated.size(); i++) {
+			UpdateItem item = updated.get(i);
+			if (item._rowID == rowID)
+				UpdateItem.set(r, item._field, item._newVal);
+		}
+	}
+	
+	/**
+	 * Reads the fields of a projection into copies of every restaurant in the cache, and 
+	 * publishes them as the next version. The rows and IDs are both in row id order, so 
+	 * they are walked together
+	 */
+	private static void fill(int projection) {
+		RestaurantTable t = table.get();
+		Restaurant [] restaurants = new Restaurant[t.size()];
+		for (int i = 0; i < restaurants.length; i++)
+			restaurants[i] = t.get(i).copy();
+		open();
+		Cursor c = adapter.getCursor(CacheLoader.columns(projection));
 		if (c.moveToFirst()) {
+			CacheLoader loader = new CacheLoader(c, projection);
+			int i = 0;
 			do {
-				Restaurant current = new Restaurant();
-				current.setName(c.getString(c.getColumnIndex(DbAdapter.COLUMN_NAME)));
-				
-				RestaurantHours rh = new RestaurantHours();
-				rh.setRanges(Calendar.SUNDAY, RestaurantHours.inflate(c.getLong(c.getColumnIndex(DbAdapter.COLUMN_HOUR_SUN))));
-				rh.setRanges(Calendar.MONDAY, RestaurantHours.inflate(c.getLong(c.getColumnIndex(DbAdapter.COLUMN_HOUR_MON))));
-				rh.setRanges(Calendar.TUESDAY, RestaurantHours.inflate(c.getLong(c.getColumnIndex(DbAdapter.COLUMN_HOUR_TUE))));
-				rh.setRanges(Calendar.WEDNESDAY, RestaurantHours.inflate(c.getLong(c.getColumnIndex(DbAdapter.COLUMN_HOUR_WED))));
-				rh.setRanges(Calendar.THURSDAY, RestaurantHours.inflate(c.getLong(c.getColumnIndex(DbAdapter.COLUMN_HOUR_THU))));
-				rh.setRanges(Calendar.FRIDAY, RestaurantHours.inflate(c.getLong(c.getColumnIndex(DbAdapter.COLUMN_HOUR_FRI))));
-				rh.setRanges(Calendar.SATURDAY, RestaurantHours.inflate(c.getLong(c.getColumnIndex(DbAdapter.COLUMN_HOUR_SAT))));
-				current.setHours(rh);
-				
-				boolean [] booleans = DbAdapter.booleansDecode(c.getInt(c.getColumnIndex(DbAdapter.COLUMN_BOOLEANS)));
-				current.setFavorite(booleans[0]);
-				current.setPlanAccepted(booleans[1]);
-				current.setMoneyAccepted(booleans[2]);
-				current.setOffCampus(booleans[3]);
-				current.setType(c.getString(c.getColumnIndex(DbAdapter.COLUMN_TYPE)));
-				
-				cache.add(current);
-				cached.add(false);
+				long id = loader.id();
+				while (i < restaurants.length && t.getID(i) < id)
+					i++;
+				if (i < restaurants.length && t.getID(i) == id) {
+					loader.fill(restaurants[i]);
+					applyPending(id, restaurants[i]);
+				}
 			} while (c.moveToNext());
 		}
-		mainDataCached = true;
 		c.close();
-		close();
-
+		table.set(t.withRestaurants(restaurants, 
+				t.hasMapData() || (projection & CacheLoader.MAP) != 0));
 	}
 	
 	/**
-	 * Populates the cache with all the data needed to render the map activity
+	 * Reads every override and hands them to the hours of their restaurants, the override
+	 * cursor is grouped by restaurant so each restaurant's are set at once
 	 */
-	protected static void cacheMapData() {
-		if (mapDataCached)
-			return;
-		cacheMainData();
-		makeReadable();	
-		Cursor c = adapter.getCursor(new String[] {
-			DbAdapter.COLUMN_ID,
-			DbAdapter.COLUMN_LATITUDE, 
-			DbAdapter.COLUMN_LONGITUDE,
-			DbAdapter.COLUMN_ICON});
+	private static void cacheOverrides(long [] IDs, Restaurant [] restaurants) {
+		Cursor c = adapter.getOverrideCursor(new String[] {
+			DbAdapter.COLUMN_RESTAURANT,
+			DbAdapter.COLUMN_FIRST_DAY,
+			DbAdapter.COLUMN_LAST_DAY,
+			DbAdapter.COLUMN_HOURS,
+			DbAdapter.COLUMN_NOTE});
 		if (c.moveToFirst()) {
-			//int i = 0;
+			int restaurantColumn = c.getColumnIndex(DbAdapter.COLUMN_RESTAURANT);
+			long rowID = c.getLong(restaurantColumn);
+			ArrayList<HoursOverride> overrides = new ArrayList<HoursOverride>();
 			do {
-				long id = c.getLong(c.getColumnIndex(DbAdapter.COLUMN_ID));
-				cache.get(getI(id)/*i*/).setLocation(c.getInt(c.getColumnIndex(DbAdapter.COLUMN_LATITUDE)), 
-						c.getInt(c.getColumnIndex(DbAdapter.COLUMN_LONGITUDE)));
-				cache.get(getI(id)/*i++*/).setIcon(c.getInt(c.getColumnIndex(DbAdapter.COLUMN_ICON)));
+				if (c.getLong(restaurantColumn) != rowID) {
+					setOverrides(IDs, restaurants, rowID, overrides);
+					rowID = c.getLong(restaurantColumn);
+					overrides = new ArrayList<HoursOverride>();
+				}
+				overrides.add(DbAdapter.overrideFromCursor(c));
 			} while (c.moveToNext());
+			setOverrides(IDs, restaurants, rowID, overrides);
 		}
-		mapDataCached = true;
 		c.close();
-		close();
+	}
+	
+	// sets the overrides on the hours of a restaurant, ignoring restaurants no longer there
+	private static void setOverrides(long [] IDs, Restaurant [] restaurants, long rowID, 
+			ArrayList<HoursOverride> overrides) {
+		int i = Arrays.binarySearch(IDs, rowID);
+		if (i >= 0 && i < restaurants.length)
+			restaurants[i].getHours().setOverrides(overrides);
+	}
+	
+	/**
+	 * Adds date specific hours to a restaurant, in the database and the cache
+	 * @param rowID
+	 * 	id of the restaurant
+	 * @param override
+	 * 	the hours and the dates they apply on, must not overlap the restaurant's other overrides
+	 * @return true if successful
+	 */
+	protected static synchronized boolean addOverride(long rowID, HoursOverride override) {
+		RestaurantTable t = getTable();
+		int i = t.indexOf(rowID);
+		if (i < 0)
+			return false;
+		RestaurantHours hours = t.get(i).getHours();
+		ArrayList<HoursOverride> overrides = hours.getOverrides();
+		overrides.add(override);
+		hours = hours.withOverrides(overrides); // throws if it overlaps, before anything is written
+		open();
+		boolean success = adapter.createOverride(rowID, override) >= 0;
+		if (success)
+			setCachedHours(t, i, hours);
+		return success;
+	}
+	
+	/**
+	 * Removes all the date specific hours of a restaurant, in the database and the cache
+	 * @param rowID
+	 * 	id of the restaurant
+	 * @return true if any were removed
+	 */
+	protected static synchronized boolean clearOverrides(long rowID) {
+		open();
+		boolean success = adapter.deleteOverrides(rowID);
+		RestaurantTable t = table.get();
+		if (t.hasMainData()) {
+			int i = index(t, rowID);
+			setCachedHours(t, i, t.get(i).getHours().withOverrides(new ArrayList<HoursOverride>()));
+		}
+		return success;
+	}
+	
+	// publishes the next table, with a copy of the restaurant at i which has the hours
+	private static void setCachedHours(RestaurantTable t, int i, RestaurantHours hours) {
+		Restaurant r = t.get(i).copy();
+		r.setHours(hours);
+		table.set(t.withRestaurant(i, r, t.isComplete(i)));
+		hoursChanged();
+	}
+	
+	/**
+	 * Searches the full text index, see RestaurantSearch.search()
+	 * @param text
+	 * 	what the user typed
+	 * @param limit
+	 * 	the most results to return
+	 * @return the matching restaurants, best first
+	 */
+	protected static ArrayList<RestaurantSearch.Result> search(String text, int limit) {
+		String match = RestaurantSearch.toMatch(text);
+		if (match == null || limit <= 0)
+			return new ArrayList<RestaurantSearch.Result>(0);
+		open();
+		Cursor c = adapter.getSearchCursor(match);
+		try {
+			return RestaurantSearch.rank(c, limit);
+		} finally {
+			c.close();
+		}
+	}
+	
+	/**
+	 * Populates the cache with all the data needed to render the map activity
+	 */
+	protected static synchronized void cacheMapData() {
+		if (table.get().hasMapData())
+			return;
+		cacheMainData();
+		if (table.get().hasMapData()) // read with the main data
+			return;
+		fill(CacheLoader.MAP);
 	}
 	
 	/**
@@ -484,130 +833,195 @@ public class DbWrapper {
 	 * @param rowID
 	 * 	id of the restaurnt to cache
 	 * @return
-	 * 	the index of the cached restaurant
+	 * 	the index of the cached restaurant, in the current table
 	 */
-	protected static int cacheRestaurant(long rowID) {
-		cacheMainData();
-		int i = getI(rowID);
-		if (cached.get(i))
+	protected static synchronized int cacheRestaurant(long rowID) {
+		RestaurantTable t = getTable();
+		int i = index(t, rowID);
+		if (t.isComplete(i)) {
+			details.touch(rowID);
 			return i;
-		makeReadable();	
-		ArrayList<String> columnsToRead = new ArrayList<String>();
-		if (!mapDataCached) {
-			columnsToRead.ensureCapacity(7);
-			columnsToRead.add(DbAdapter.COLUMN_LATITUDE);
-			columnsToRead.add(DbAdapter.COLUMN_LONGITUDE);
-			columnsToRead.add(DbAdapter.COLUMN_ICON);
-		} else columnsToRead.ensureCapacity(4);
-		columnsToRead.add(DbAdapter.COLUMN_DESCRIPTION);
-		columnsToRead.add(DbAdapter.COLUMN_PHONE_NUMBER);
-		columnsToRead.add(DbAdapter.COLUMN_URL);
-		columnsToRead.add(DbAdapter.COLUMN_MENU);
-		
-		String [] clmns = new String[0]; // for the type
-		Cursor c = adapter.getCursor(columnsToRead.toArray(clmns), rowID);
-		if (!c.moveToFirst()) 
+		}
+		if (cacheRestaurants(new long[] {rowID}) == 0) 
 			throw new RuntimeException("Cannot cache restaurant which doesnt exist");
-		if (i < 0)
-			throw new RuntimeException("error, descrepency between database and memory cache");
-		
-		Restaurant r = cache.get(i);
-		if (!mapDataCached) {
-			r.setLocation(c.getInt(c.getColumnIndex(DbAdapter.COLUMN_LATITUDE)), 
-					c.getInt(c.getColumnIndex(DbAdapter.COLUMN_LONGITUDE)));
-			r.setIcon(c.getInt(c.getColumnIndex(DbAdapter.COLUMN_ICON)));
+		t = table.get();
+		return index(t, rowID);
+	}
+	
+	/**
+	 * Populates the cache with all the data for several restaurants, read with one query 
+	 * and published as one version of the cache. The details of the restaurants least 
+	 * recently used are then dropped if they all take more than DetailCache allows
+	 * @param rowIDs
+	 * 	ids of the restaurants, those already cached or not in the cache are skipped, 
+	 * 	and only the first DetailCache.PREFETCH_MAX others are read
+	 * @return the number of restaurants read
+	 */
+	protected static synchronized int cacheRestaurants(long [] rowIDs) {
+		RestaurantTable t = getTable();
+		long [] wanted = new long[Math.min(rowIDs.length, DetailCache.PREFETCH_MAX)];
+		int n = 0;
+		for (int j = 0; j < rowIDs.length && n < wanted.length; j++) {
+			int i = t.indexOf(rowIDs[j]);
+			if (i >= 0 && !t.isComplete(i))
+				wanted[n++] = rowIDs[j];
+		}
+		if (n == 0)
+			return 0;
+		if (n < wanted.length) {
+			long [] all = wanted;
+			wanted = new long[n];
+			System.arraycopy(all, 0, wanted, 0, n);
+		}
+		open();
+		int projection = t.hasMapData() ? CacheLoader.DETAILS : CacheLoader.DETAILS | CacheLoader.MAP;
+		Cursor c = adapter.getCursor(CacheLoader.columns(projection), wanted);
+		int [] indexes = new int[c.getCount()];
+		Restaurant [] restaurants = new Restaurant[indexes.length];
+		int read = 0;
+		if (c.moveToFirst()) {
+			CacheLoader loader = new CacheLoader(c, projection);
+			do {
+				int i = index(t, loader.id());
+				Restaurant r = t.get(i).copy();
+				loader.fill(r);
+				applyPending(loader.id(), r);
+				indexes[read] = i;
+				restaurants[read++] = r;
+			} while (c.moveToNext());
 		}
-		
-		r.setDescription(c.getString(c.getColumnIndex(DbAdapter.COLUMN_DESCRIPTION)));
-		r.setPhoneNumber(c.getString(c.getColumnIndex(DbAdapter.COLUMN_PHONE_NUMBER)));
-		r.setUrl(c.getString(c.getColumnIndex(DbAdapter.COLUMN_URL)));
-		// TODO remove comments when menu functional
-		//r.setMenu(DBAdapter.getMenuFromXml(c.getString(c.getColumnIndex(DBAdapter.COLUMN_DESCRIPTION))));
-		
 		c.close();
-		close();
-		cached.set(i, true);
-		return i;
+		if (read == 0)
+			return 0;
+		table.set(t.withReplaced(indexes, restaurants, true));
+		for (int j = 0; j < read; j++)
+			details.add(t.getID(indexes[j]), restaurants[j]);
+		trimDetails();
+		return read;
+	}
+	
+	/**
+	 * Drops the details of the restaurants least recently used from the cache, until the 
+	 * rest take no more than DetailCache allows. Restaurants with changes not yet 
+	 * committed keep theirs, the changes are only in the cache
+	 */
+	private static void trimDetails() {
+		HashSet<Long> pinned = new HashSet<Long>();
+		if (updated != null)
+			for (int j = 0; j < updated.size(); j++)
+				pinned.add(updated.get(j)._rowID);
+		long [] evicted = details.evict(pinned);
+		if (evicted.length == 0)
+			return;
+		RestaurantTable t = table.get();
+		int [] indexes = new int[evicted.length];
+		Restaurant [] restaurants = new Restaurant[evicted.length];
+		int n = 0;
+		for (int j = 0; j < evicted.length; j++) {
+			int i = t.indexOf(evicted[j]);
+			if (i < 0 || !t.isComplete(i))
+				continue;
+			indexes[n] = i;
+			restaurants[n++] = DetailCache.withoutDetails(t.get(i));
+		}
+		if (n == 0)
+			return;
+		if (n < indexes.length) {
+			int [] someIndexes = new int[n];
+			Restaurant [] someRestaurants = new Restaurant[n];
+			System.arraycopy(indexes, 0, someIndexes, 0, n);
+			System.arraycopy(restaurants, 0, someRestaurants, 0, n);
+			indexes = someIndexes;
+			restaurants = someRestaurants;
+		}
+		table.set(t.withReplaced(indexes, restaurants, false));
 	}
 	
 	
 	/**
-	 * Destroys the restaurant cache, but not the ID cache
+	 * Destroys the restaurant cache and the ID cache, they are read again 
+	 * together on the next access
 	 */
-	protected static void resetRestaurantCache() { //TODO make this private after finished debugging in StaticRestaurantData
-		int restaurants = getIDs().size();
-		cache = new ArrayList<Restaurant>();
-		cache.ensureCapacity(restaurants);
-		cached = new ArrayList<Boolean>();
-		cached.ensureCapacity(restaurants);
-		mainDataCached = false;
-		mapDataCached = false;
+	protected static synchronized void resetRestaurantCache() { //TODO make this private after finished debugging in StaticRestaurantData
+		table.set(table.get().cleared());
+		details.clear();
+		hoursChanged();
 	}
 	
 	/**
-	 * Initializes the database if not already
+	 * Tells everything built from the hours of all the restaurants that 
+	 * restaurants or their hours have changed
 	 */
-	private static void initialize() {
-		if (adapter == null) {
-			adapter = new DbAdapter(Main.applicationContext);
-			state = CLOSED;
-		}
+	private static void hoursChanged() {
+		TransitionScheduler.invalidate();
+		HoursQuery.invalidate();
 	}
 	
 	/**
-	 * Brings the database to a writable state
-	 * Should be called before any write calls
+	 * Opens the database if not already. It then stays open, every later access 
+	 * reuses the connection, until close(). Favorites left in the journal when 
+	 * the application last stopped are written as it opens
 	 */
-	private static void makeWritable() {
-		initialize();
-		switch (state) {
-		case READABLE:
-			adapter.close();
-			adapter.openWritable();
-			state = WRITABLE;
-			return;
-		case WRITABLE:
-			return;
-		case CLOSED:
-			adapter.openWritable();
-			state = WRITABLE;
+	protected static synchronized void open() {
+		if (adapter == null)
+			adapter = new DbAdapter(Main.applicationContext);
+		if (adapter.isOpen())
 			return;
-		}
+		adapter.open();
+		writeFavorites();
 	}
 	
 	/**
-	 * Brings the database to a readable state
-	 * Should be called before any read calls
+	 * Closes the database. Nothing needs it closed between accesses, this is for when
+	 * the application is going away; the next access opens it again. The favorites 
+	 * journal is written first rather than left for the next start
 	 */
-	private static void makeReadable() {
-		initialize();
-		switch (state) {
-		case READABLE:
-		case WRITABLE:
-			return;
-		case CLOSED:
-			adapter.openReadable();
-			state = READABLE;
+	protected static synchronized void close() {
+		if (adapter == null || !adapter.isOpen())
 			return;
-		}
+		if (favorites != null)
+			favorites.cancelFlush();
+		writeFavorites();
+		adapter.close();
 	}
 	
 	/**
-	 * Closes the underlying database adapter 
-	 * no read/writes are to be performed in the 
-	 * near future
+	 * Writes the favorites journal to the database, run by the journal on the 
+	 * DbLoader thread a moment after the last change. A flush that runs after close() 
+	 * leaves the journal for the next open() rather than opening the database again
 	 */
-	protected static void close() {
-		initialize();
-		switch (state) {
-		case READABLE:
-		case WRITABLE:
-			adapter.close();
-			state = CLOSED;
+	protected static synchronized void flushFavorites() {
+		if (adapter == null || !adapter.isOpen())
 			return;
-		case CLOSED:
+		writeFavorites();
+	}
+	
+	// writes the latest favorite of each restaurant in the journal, in one transaction; 
+	// the journal keeps them if that fails
+	private static void writeFavorites() {
+		FavoritesJournal journal = favorites();
+		LinkedHashMap<Long, Boolean> entries = journal.take();
+		if (entries.isEmpty())
 			return;
+		long [] rows = new long[entries.size()];
+		boolean [] values = new boolean[entries.size()];
+		int i = 0;
+		for (Map.Entry<Long, Boolean> entry : entries.entrySet()) {
+			rows[i] = entry.getKey();
+			values[i++] = entry.getValue();
 		}
+		adapter.setFavorites(rows, values);
+		journal.flushed(entries);
+	}
+	
+	private static synchronized FavoritesJournal favorites() {
+		if (favorites == null)
+			favorites = new FavoritesJournal(Main.applicationContext.getFilesDir(), new Runnable() {
+				public void run() {
+					flushFavorites();
+				}
+			});
+		return favorites;
 	}
 
 	/**
@@ -618,11 +1032,14 @@ public class DbWrapper {
 	 * 	the index of the restaurant in cache
 	 */
 	protected static int getI(long rowID) {
-		int i = Collections.binarySearch(IDs, rowID);
+		return index(getTable(), rowID);
+	}
+	
+	// returns the index of the restaurant in the table, throwing if it is not there
+	private static int index(RestaurantTable t, long rowID) {
+		int i = t.indexOf(rowID);
 		if (i < 0) {
-			try {
-				Log.e("DbWrapper", IDs.toString());
-			} catch (NullPointerException e) {}
+			Log.e("DbWrapper", t.getIDs().toString());
 			throw new RuntimeException("Restaurant with id " + rowID + " does not exist");
 		}
 		return i;
@@ -634,81 +1051,126 @@ public class DbWrapper {
 		}
 	}
 	
-	protected static class UpdateItem {
+	/**
+	 * A change made to a field of a cached restaurant and not yet committed, along with 
+	 * the value the field had before. The static methods read, set and write a field 
+	 * given its constant
+	 */
+	public static class UpdateItem {
 		
-		protected static final int NAME = 0;
-		protected static final int HOURS = 1;
-		protected static final int MENU = 2;
-		protected static final int DESCRIPTION = 3;
-		protected static final int TYPE = 4; 
-		protected static final int ICON = 5;
-		protected static final int LATITUDE = 6;
-		protected static final int LONGITUDE = 7;
-		protected static final int FAVORITE = 8;
-		protected static final int PLAN_ACCEPTED = 9;
-		protected static final int MONEY_ACCEPTED = 10;
-		protected static final int OFF_CAMPUS = 11; 
-		protected static final int PHONE_NUMBER = 12;
-		protected static final int URL = 13;
+		public static final int NAME = 0;
+		public static final int HOURS = 1;
+		public static final int MENU = 2;
+		public static final int DESCRIPTION = 3;
+		public static final int TYPE = 4; 
+		public static final int ICON = 5;
+		public static final int LATITUDE = 6;
+		public static final int LONGITUDE = 7;
+		public static final int FAVORITE = 8;
+		public static final int PLAN_ACCEPTED = 9;
+		public static final int MONEY_ACCEPTED = 10;
+		public static final int OFF_CAMPUS = 11; 
+		public static final int PHONE_NUMBER = 12;
+		public static final int URL = 13;
 		
-		private int _i;
-		private int _field;
-		private Object _oldVal;
+		/** the fields that are not part of the content hash, as a mask */
+		public static final int NOT_SHIPPED = 1 << FAVORITE | 1 << MENU;
 		
-		private static boolean booleansCommited;
+		private final long _rowID;
+		private final int _field;
+		private final Object _oldVal;
+		private final Object _newVal;
 		
-		protected UpdateItem(int i, int field, Object old) {
-			_i = i;
+		protected UpdateItem(long rowID, int field, Object old, Object value) {
+			_rowID = rowID;
 			_field = field;
 			_oldVal = old;
-			booleansCommited = false;
+			_newVal = value;
+		}
+		
+		// returns the value of the field of r, boxed
+		protected static Object get(Restaurant r, int field) {
+			switch (field) {
+			case NAME:				return r.getName();
+			case HOURS:				return r.getHours();
+			case MENU:				return r.getMenu();
+			case DESCRIPTION:		return r.getDescription();
+			case TYPE:				return r.getType();
+			case ICON:				return r.getIcon();
+			case LATITUDE:			return r.getLat();
+			case LONGITUDE:			return r.getLon();
+			case FAVORITE:			return r.favorite();
+			case PLAN_ACCEPTED:		return r.mealPlanAccepted();
+			case MONEY_ACCEPTED:	return r.mealMoneyAccepted();
+			case OFF_CAMPUS:		return r.offCampus();
+			case PHONE_NUMBER:		return r.getPhoneNumber();
+			case URL:				return r.getUrl();
+			default:
+				throw new RuntimeException("Unknown restaurant field " + field);
+			}
+		}
+		
+		// sets the field of r, which must not be in a published table
+		protected static void set(Restaurant r, int field, Object value) {
+			switch (field) {
+			case NAME:				r.setName((String)value); break;
+			case HOURS:				r.setHours((RestaurantHours)value); break;
+			case MENU:				r.setMenu((RestaurantMenu)value); break;
+			case DESCRIPTION:		r.setDescription((String)value); break;
+			case TYPE:				r.setType((String)value); break;
+			case ICON:				r.setIcon((Integer)value); break;
+			case LATITUDE:			r.setLatitude((Integer)value); break;
+			case LONGITUDE:			r.setLongidute((Integer)value); break;
+			case FAVORITE:			r.setFavorite((Boolean)value); break;
+			case PLAN_ACCEPTED:		r.setPlanAccepted((Boolean)value); break;
+			case MONEY_ACCEPTED:	r.setMoneyAccepted((Boolean)value); break;
+			case OFF_CAMPUS:		r.setOffCampus((Boolean)value); break;
+			case PHONE_NUMBER:		r.setPhoneNumber((String)value); break;
+			case URL:				r.setUrl((String)value); break;
+			default:
+				throw new RuntimeException("Unknown restaurant field " + field);
+			}
 		}
 		
-		// pre: adapter is writable
-		protected boolean commit() {
-			switch (_field) {
+		// puts the column of the field of r into values, the booleans share one column
+		protected static void put(ContentValues values, Restaurant r, int field) {
+			switch (field) {
+			case NAME:			values.put(DbAdapter.COLUMN_NAME, r.getName()); break;
+			case HOURS:			values.put(DbAdapter.COLUMN_HOURS, r.getHours().encode()); break;
+			case MENU:			values.put(DbAdapter.COLUMN_MENU, 
+									r.getMenu() == null ? null : r.getMenu().encode()); break;
+			case DESCRIPTION:	values.put(DbAdapter.COLUMN_DESCRIPTION, r.getDescription()); break;
+			case TYPE:			values.put(DbAdapter.COLUMN_TYPE, r.getType()); break;
+			case ICON:			values.put(DbAdapter.COLUMN_ICON, r.getIcon()); break;
+			case LATITUDE:		values.put(DbAdapter.COLUMN_LATITUDE, r.getLat()); break;
+			case LONGITUDE:		values.put(DbAdapter.COLUMN_LONGITUDE, r.getLon()); break;
 			case FAVORITE:  
 			case PLAN_ACCEPTED:
 			case MONEY_ACCEPTED:
 			case OFF_CAMPUS:
-				if (!booleansCommited) {
-					booleansCommited = true;
-					return adapter.updateColumn(getIDs().get(_i), DbAdapter.COLUMN_BOOLEANS, 
-							DbAdapter.booleansEncode(new boolean[] {cache.get(_i).favorite(), cache.get(_i).mealPlanAccepted(), 
-									cache.get(_i).mealMoneyAccepted(), cache.get(_i).offCampus()}));
-				}
-				else return true;
-				
-				// no other updateItem types needed yet, so none implemented
-				
-			case NAME: 
-				return adapter.updateColumn(getIDs().get(_i), DbAdapter.COLUMN_NAME, cache.get(_i).getName());
-			case HOURS:
-				//return adapter.updateColumn(IDs.get(_i), DBAdapter.COLUMN_HOURS, (String)_oldVal);
-			case MENU:
-			case DESCRIPTION:
-			case TYPE:
-			case ICON:
-			case LATITUDE:
-			case LONGITUDE:
-			case PHONE_NUMBER:
-			case URL:
-				
+				values.put(DbAdapter.COLUMN_BOOLEANS, DbAdapter.booleansEncode(new boolean[] 
+				        {r.favorite(), r.mealPlanAccepted(), r.mealMoneyAccepted(), r.offCampus()}));
+				break;
+			case PHONE_NUMBER:	values.put(DbAdapter.COLUMN_PHONE_NUMBER, r.getPhoneNumber()); break;
+			case URL:			values.put(DbAdapter.COLUMN_URL, r.getUrl()); break;
 			default:
-				return false;
+				throw new RuntimeException("Unknown restaurant field " + field);
 			}
 		}
 		
-		protected void revert() {
-			switch (_field) {
-			case FAVORITE:
-				cache.get(_i).setFavorite((Boolean)_oldVal);
-				break;
-				
-				// same here 
-				
-			}
+		// true if a field value is unchanged; hours and menus are compared by their encodings
+		protected static boolean same(Object a, Object b) {
+			if (a == b)
+				return true;
+			if (a == null || b == null)
+				return false;
+			if (a instanceof RestaurantHours)
+				return b instanceof RestaurantHours && Arrays.equals(
+						((RestaurantHours)a).encode(), ((RestaurantHours)b).encode());
+			if (a instanceof RestaurantMenu)
+				return b instanceof RestaurantMenu && Arrays.equals(
+						((RestaurantMenu)a).encode(), ((RestaurantMenu)b).encode());
+			return a.equals(b);
 		}
-
 	}
 }
@@ -0,0 +1,124 @@
+package edu.vanderbilt.vuphone.android.storage;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.vanderbilt.vuphone.android.objects.RestaurantMenu;
+
+/**
+ * Keeps track of which restaurants have their details (description, phone number, url and
+ * menu, CacheLoader.DETAILS) in the DbWrapper cache, and how much memory they take, so the
+ * details are kept within MAX_BYTES while the main and map data of every restaurant stay
+ * resident. The restaurants are kept least recently used first; once they take more than
+ * the limit DbWrapper drops the details of the oldest from the cache, marking them not
+ * complete, and they are read again if opened.
+ *
+ * The sizes are estimates, two bytes a character plus the menu (RestaurantMenu.memorySize())
+ * and ENTRY_OVERHEAD, good enough to bound the cache rather than to measure it.
+ *
+ */
+final class DetailCache {
+
+	/** the most memory the details kept are let to take, roughly, in bytes */
+	protected static final int MAX_BYTES = 192 * 1024;
+	/** the most restaurants a prefetch reads */
+	protected static final int PREFETCH_MAX = 24;
+
+	// the strings and objects of an entry besides its text
+	private static final int ENTRY_OVERHEAD = 96;
+
+	private final int _maxBytes;
+	// the size of the details of each row id, least recently used first
+	private final LinkedHashMap<Long, Integer> _sizes = new LinkedHashMap<Long, Integer>(32, 0.75f, true);
+	private int _bytes;
+
+	protected DetailCache(int maxBytes) {
+		_maxBytes = maxBytes;
+	}
+
+	// marks the details of a restaurant as just used
+	protected synchronized void touch(long rowID) {
+		_sizes.get(rowID);
+	}
+
+	// records that the details of a restaurant were read, as the most recently used
+	protected synchronized void add(long rowID, Restaurant r) {
+		int size = size(r);
+		Integer old = _sizes.put(rowID, size);
+		_bytes += size - (old == null ? 0 : old);
+	}
+
+	// forgets a restaurant, its details are gone from the cache
+	protected synchronized void remove(long rowID) {
+		Integer old = _sizes.remove(rowID);
+		if (old != null)
+			_bytes -= old;
+	}
+
+	protected synchronized void clear() {
+		_sizes.clear();
+		_bytes = 0;
+	}
+
+	/**
+	 * Picks the least recently used restaurants whose details are to be dropped for the rest
+	 * to fit in the limit, and forgets them. The most recently used of those not pinned is
+	 * never picked, even if it alone is over the limit, as it is the one being shown
+	 * @param pinned
+	 * 	row ids not to pick, whatever their age, may be null
+	 * @return the row ids picked, empty if everything fits
+	 */
+	protected synchronized long [] evict(HashSet<Long> pinned) {
+		if (_bytes <= _maxBytes)
+			return new long[0];
+		// the entries that can be picked, pinned ones are passed over without counting
+		int evictable = _sizes.size();
+		if (pinned != null)
+			for (Long rowID : _sizes.keySet())
+				if (pinned.contains(rowID))
+					evictable--;
+		long [] picked = new long[_sizes.size()];
+		int n = 0;
+		for (Iterator<Map.Entry<Long, Integer>> entries = _sizes.entrySet().iterator();
+				_bytes > _maxBytes && evictable > 1 && entries.hasNext(); ) {
+			Map.Entry<Long, Integer> entry = entries.next();
+			if (pinned != null && pinned.contains(entry.getKey()))
+				continue;
+			picked[n++] = entry.getKey();
+			_bytes -= entry.getValue();
+			entries.remove();
+			evictable--;
+		}
+		long [] out = new long[n];
+		System.arraycopy(picked, 0, out, 0, n);
+		return out;
+	}
+
+	// returns the estimated size of the details of a restaurant, in bytes
+	protected static int size(Restaurant r) {
+		int size = ENTRY_OVERHEAD;
+		size += length(r.getDescription()) * 2;
+		size += length(r.getPhoneNumber()) * 2;
+		size += length(r.getUrl()) * 2;
+		RestaurantMenu menu = r.getMenu();
+		if (menu != null)
+			size += menu.memorySize();
+		return size;
+	}
+
+	// returns a copy of the restaurant without its details
+	protected static Restaurant withoutDetails(Restaurant r) {
+		Restaurant out = r.copy();
+		out.setDescription(null);
+		out.setPhoneNumber(null);
+		out.setUrl(null);
+		out.setMenu(null);
+		return out;
+	}
+
+	private static int length(String s) {
+		return s == null ? 0 : s.length();
+	}
+}
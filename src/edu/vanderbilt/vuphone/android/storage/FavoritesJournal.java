@@ -0,0 +1,234 @@
+package edu.vanderbilt.vuphone.android.storage;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+/**
+ * Append-only log of favorite toggles, so a toggle is kept from the moment it is made
+ * rather than from the next write to the restaurants table. Each toggle is one fixed size
+ * record appended to a file in the application's files directory with a single write, no
+ * reading or seeking, so it is cheap enough for the UI thread and survives the process
+ * being killed right after. It is made right away rather than queued behind the database
+ * work on the DbLoader thread, so a reload of the cache always finds it. If it fails the
+ * entry is kept in memory and still written by the next flush; only the process dying
+ * before that loses it.
+ *
+ * The entries are written to the database by the flush task, on the DbLoader thread,
+ * FLUSH_DELAY after the last toggle, so a run of toggles goes in one transaction. To flush,
+ * take() moves the journal aside, new toggles going to a fresh one, and returns the latest
+ * value of each row; once they are written flushed() deletes them. If the process dies in
+ * between the entries are still there, and are taken again by the next flush or when the
+ * database is next opened.
+ *
+ * Record: long row id, byte favorite (0 or 1), byte check. A record cut short, or whose
+ * check does not match, ends the journal.
+ *
+ */
+final class FavoritesJournal {
+
+	/** name of the journal in the files directory */
+	protected static final String FILE = "favorites.journal";
+	private static final String TAG = "FavoritesJournal";
+	// the entries taken by a flush, until they are written
+	private static final String TAKEN = FILE + ".taken";
+
+	protected static final int RECORD_SIZE = 10;
+
+	/** how long after the last toggle the entries are written, in milliseconds */
+	protected static final long FLUSH_DELAY = 2000;
+
+	private final File _file;
+	private final File _taken;
+	private final Runnable _flush;
+	private final byte [] _record = new byte[RECORD_SIZE];
+
+	// hands the flush to the DbLoader thread, which does every other database write
+	private final Runnable _post = new Runnable() {
+		public void run() {
+			DbLoader.execute(_flush);
+		}
+	};
+
+	// open on _file from the first append until take()
+	private FileOutputStream _out;
+	private Handler _handler;
+	// the entries that could not be written to _file, until they are flushed
+	private final LinkedHashMap<Long, Boolean> _unwritten = new LinkedHashMap<Long, Boolean>();
+
+	/**
+	 * @param dir
+	 * 	the directory of the journal
+	 * @param flush
+	 * 	writes the entries to the database, run on the DbLoader thread
+	 */
+	protected FavoritesJournal(File dir, Runnable flush) {
+		_file = new File(dir, FILE);
+		_taken = new File(dir, TAKEN);
+		_flush = flush;
+	}
+
+	/**
+	 * Records the favorite value of a restaurant, and schedules a flush. The record is
+	 * written before returning; if that fails the entry is kept in memory instead
+	 * @param rowID
+	 * 	id of the restaurant
+	 * @param favorite
+	 * 	its new favorite value
+	 */
+	protected void append(long rowID, boolean favorite) {
+		write(rowID, favorite);
+		schedule(FLUSH_DELAY);
+	}
+
+	// appends a record to the journal, or keeps the entry in memory if that fails
+	private synchronized void write(long rowID, boolean favorite) {
+		encode(_record, rowID, favorite);
+		try {
+			if (_out == null)
+				_out = new FileOutputStream(_file, true);
+			_out.write(_record);
+			_unwritten.remove(rowID); // older than the record just written
+		} catch (IOException e) {
+			Log.e(TAG, "Unable to write " + FILE + ", keeping the favorite of " + rowID
+					+ " in memory until the next flush", e);
+			_unwritten.put(rowID, favorite);
+			closeQuietly(); // opened again by the next append
+		}
+	}
+
+	private void closeQuietly() {
+		if (_out == null)
+			return;
+		try {
+			_out.close();
+		} catch (IOException e) {
+			// nothing more to lose
+		}
+		_out = null;
+	}
+
+	// flushes as soon as the DbLoader thread gets to it rather than after FLUSH_DELAY
+	protected void flushSoon() {
+		schedule(0);
+	}
+
+	// drops the scheduled flush, what is in the journal stays there
+	protected void cancelFlush() {
+		if (_handler != null)
+			_handler.removeCallbacks(_post);
+	}
+
+	/**
+	 * Moves the entries aside to be written, along with any a failed flush left and those
+	 * that could not be written to the journal. If the journal cannot be read the error is
+	 * logged and nothing is taken, everything stays for the next flush
+	 * @return the latest favorite value of each row in the entries, empty if there are none
+	 */
+	protected synchronized LinkedHashMap<Long, Boolean> take() {
+		LinkedHashMap<Long, Boolean> entries = new LinkedHashMap<Long, Boolean>();
+		try {
+			if (_out != null) {
+				_out.close();
+				_out = null;
+			}
+			if (_taken.exists()) {
+				// a flush that did not finish, its entries are older than those in the journal
+				read(_taken, entries);
+				if (_file.exists()) {
+					read(_file, entries);
+					write(_taken, entries);
+					_file.delete();
+				}
+			} else if (_file.exists()) {
+				if (!_file.renameTo(_taken))
+					throw new IOException("unable to rename to " + TAKEN);
+				read(_taken, entries);
+			}
+		} catch (IOException e) {
+			Log.e(TAG, "Unable to read " + FILE + ", leaving it for the next flush", e);
+			return new LinkedHashMap<Long, Boolean>();
+		}
+		entries.putAll(_unwritten);
+		return entries;
+	}
+
+	// drops the entries returned by take(), once they are in the database
+	protected synchronized void flushed(LinkedHashMap<Long, Boolean> entries) {
+		_taken.delete();
+		for (Map.Entry<Long, Boolean> entry : entries.entrySet())
+			if (entry.getValue().equals(_unwritten.get(entry.getKey())))
+				_unwritten.remove(entry.getKey());
+	}
+
+	private void schedule(long delay) {
+		if (_handler == null)
+			_handler = new Handler(Looper.getMainLooper());
+		_handler.removeCallbacks(_post);
+		_handler.postDelayed(_post, delay);
+	}
+
+	// reads the records of a file into entries, up to the first one that is not whole
+	private static void read(File file, LinkedHashMap<Long, Boolean> entries) throws IOException {
+		byte [] data = new byte[(int)file.length()];
+		FileInputStream in = new FileInputStream(file);
+		try {
+			int read = 0;
+			while (read < data.length) {
+				int n = in.read(data, read, data.length - read);
+				if (n < 0)
+					break;
+				read += n;
+			}
+		} finally {
+			in.close();
+		}
+		for (int at = 0; at + RECORD_SIZE <= data.length; at += RECORD_SIZE) {
+			if (data[at + 9] != check(data, at) || (data[at + 8] & ~1) != 0)
+				break; // cut short by a crash mid write
+			long rowID = 0;
+			for (int i = 0; i < 8; i++)
+				rowID = (rowID << 8) | (data[at + i] & 0xff);
+			entries.put(rowID, data[at + 8] == 1);
+		}
+	}
+
+	// replaces a file with one record for each entry, synced before it takes the file's place
+	private static void write(File file, LinkedHashMap<Long, Boolean> entries) throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+		FileOutputStream out = new FileOutputStream(temp);
+		try {
+			byte [] record = new byte[RECORD_SIZE];
+			for (Map.Entry<Long, Boolean> entry : entries.entrySet()) {
+				encode(record, entry.getKey(), entry.getValue());
+				out.write(record);
+			}
+			out.getFD().sync();
+		} finally {
+			out.close();
+		}
+		if (!temp.renameTo(file))
+			throw new IOException("unable to rename to " + file.getName());
+	}
+
+	private static void encode(byte [] record, long rowID, boolean favorite) {
+		for (int i = 0; i < 8; i++)
+			record[i] = (byte)(rowID >>> (56 - i * 8));
+		record[8] = (byte)(favorite ? 1 : 0);
+		record[9] = check(record, 0);
+	}
+
+	private static byte check(byte [] record, int at) {
+		int check = 0x5a;
+		for (int i = 0; i < 9; i++)
+			check ^= record[at + i];
+		return (byte)check;
+	}
+}
@@ -0,0 +1,73 @@
+package edu.vanderbilt.vuphone.android.storage;
+
+/**
+ * Maps restaurant row ids to their cache indexes without boxing. When the ids are one
+ * run of consecutive numbers, which they are after the table is seeded, the index is
+ * the id minus the first; otherwise they are looked up in an open addressing hash table
+ * of primitive keys. Lookups allocate nothing.
+ *
+ * An index is built for one array of ids and never changes, it is shared by every
+ * RestaurantTable version with the same ids.
+ *
+ */
+final class IdIndex {
+
+	private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+	private final long _first;
+	private final boolean _dense;
+	private final int _size;
+
+	// the hash table when not dense: a slot's value is the index plus one, 0 when empty
+	private final long [] _keys;
+	private final int [] _values;
+	private final int _shift;
+
+	/**
+	 * @param ids
+	 * 	the row ids in ascending order, the index of each is its position
+	 */
+	protected IdIndex(long [] ids) {
+		_size = ids.length;
+		_first = _size == 0 ? 0 : ids[0];
+		_dense = _size == 0 || ids[_size - 1] - _first == _size - 1;
+		if (_dense) {
+			_keys = null;
+			_values = null;
+			_shift = 0;
+			return;
+		}
+		// a power of two at least twice the size, so probes stay short
+		int bits = 1;
+		while ((1 << bits) < _size * 2)
+			bits++;
+		_keys = new long[1 << bits];
+		_values = new int[1 << bits];
+		_shift = 64 - bits;
+		int mask = (1 << bits) - 1;
+		for (int i = 0; i < _size; i++) {
+			int slot = slot(ids[i]);
+			while (_values[slot] != 0)
+				slot = (slot + 1) & mask;
+			_keys[slot] = ids[i];
+			_values[slot] = i + 1;
+		}
+	}
+
+	// returns the index of the id, -1 if it is not in the index
+	protected int indexOf(long id) {
+		if (_dense) {
+			long i = id - _first;
+			return i >= 0 && i < _size ? (int)i : -1;
+		}
+		int mask = _keys.length - 1;
+		for (int slot = slot(id); _values[slot] != 0; slot = (slot + 1) & mask)
+			if (_keys[slot] == id)
+				return _values[slot] - 1;
+		return -1;
+	}
+
+	private int slot(long id) {
+		return (int)((id * GOLDEN) >>> _shift);
+	}
+}
@@ -0,0 +1,85 @@
+package edu.vanderbilt.vuphone.android.storage;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+/**
+ * One step of the database schema, from a version to the next. A step alters the tables
+ * and moves the data already in them to fit, so upgrading keeps every row, favorites
+ * included, instead of dropping the tables for the next reseed to fill.
+ *
+ * DbAdapter keeps a step for each version since 7; a change to the schema bumps
+ * DB_VERSION and adds the step from the version before it. upgrade() runs the steps
+ * in order, each in its own transaction, and logs how long each took.
+ *
+ */
+abstract class Migration {
+
+	private static final String TAG = "Migration";
+
+	/** the version the step upgrades from, to _from + 1 */
+	protected final int _from;
+	/** what the step does, for the log */
+	protected final String _description;
+
+	protected Migration(int from, String description) {
+		_from = from;
+		_description = description;
+	}
+
+	/**
+	 * Alters the schema and data from version _from to the next
+	 * @param db
+	 * 	the database being upgraded, in a transaction
+	 */
+	protected abstract void apply(SQLiteDatabase db);
+
+	/**
+	 * Runs the steps between two versions, in order. SQLiteOpenHelper calls onUpgrade()
+	 * in a transaction of its own, which the transaction of each step nests in, so a
+	 * step that throws rolls back the whole upgrade and leaves the version as it was
+	 * @param db
+	 * 	the database being upgraded
+	 * @param from
+	 * 	the version of the database
+	 * @param to
+	 * 	the version to upgrade it to
+	 * @param steps
+	 * 	the known steps, in any order
+	 * @return false, having run nothing, if a step between the versions is missing
+	 */
+	protected static boolean upgrade(SQLiteDatabase db, int from, int to, Migration [] steps) {
+		if (to < from)
+			return false;
+		Migration [] path = new Migration[to - from];
+		for (int i = 0; i < steps.length; i++) {
+			int at = steps[i]._from - from;
+			if (at < 0 || at >= path.length)
+				continue;
+			if (path[at] != null)
+				throw new RuntimeException("Two migrations from version " + steps[i]._from);
+			path[at] = steps[i];
+		}
+		for (int i = 0; i < path.length; i++)
+			if (path[i] == null)
+				return false;
+
+		long started = System.nanoTime();
+		for (int i = 0; i < path.length; i++) {
+			Migration step = path[i];
+			long start = System.nanoTime();
+			db.beginTransaction();
+			try {
+				step.apply(db);
+				db.setTransactionSuccessful();
+			} finally {
+				db.endTransaction();
+			}
+			Log.i(TAG, "version " + step._from + " to " + (step._from + 1) + ", " + step._description
+					+ ": " + (System.nanoTime() - start) / 1000000 + " ms");
+		}
+		Log.i(TAG, "upgraded from version " + from + " to " + to + " in "
+				+ (System.nanoTime() - started) / 1000000 + " ms");
+		return true;
+	}
+}
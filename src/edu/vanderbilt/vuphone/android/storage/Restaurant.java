@@ -1,8 +1,12 @@
 package edu.vanderbilt.vuphone.android.storage;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 
 import edu.vanderbilt.vuphone.android.dining.R;
+import edu.vanderbilt.vuphone.android.objects.HoursOverride;
+import edu.vanderbilt.vuphone.android.objects.NowSnapshot;
 import edu.vanderbilt.vuphone.android.objects.RestaurantHours;
 import edu.vanderbilt.vuphone.android.objects.RestaurantMenu;
 import edu.vanderbilt.vuphone.android.objects.Time;
@@ -52,6 +56,11 @@ public class Restaurant {
 	public int 				minutesToClose() 	{return _hours.minutesToClose();}
 	public Time 			getNextOpenTime()	{return _hours.getNextOpenTime();}
 	public Time 			getNextCloseTime()	{return _hours.getNextCloseTime();}
+	public boolean 			isOpen(NowSnapshot now) 			{return _hours.isOpen(now);}
+	public int 				minutesToOpen(NowSnapshot now) 		{return _hours.minutesToOpen(now);}
+	public int 				minutesToClose(NowSnapshot now) 	{return _hours.minutesToClose(now);}
+	public Time 			getNextOpenTime(NowSnapshot now)	{return _hours.getNextOpenTime(now);}
+	public Time 			getNextCloseTime(NowSnapshot now)	{return _hours.getNextCloseTime(now);}
 	
 	// these methods may return null
 	public String 			getName() 			{return _name;}
@@ -106,9 +115,87 @@ public class Restaurant {
 	protected void setPhoneNumber(String number)	{_phoneNumber = number;}
 	protected void setUrl(String url)				{_url = url;}
 	protected void setIcon(int iconID)				{_icon = iconID;}
+	
+	// builds now what the fields build when first read, see RestaurantHours.settle(); 
+	// called before the restaurant goes in a published RestaurantTable
+	protected void settle() {
+		if (_hours != null)
+			_hours.settle();
+	}
+	
+	// returns a copy to change, for the cached restaurants are shared and never changed in place
+	// (see RestaurantTable); the hours and menu are shared with the copy, replace them to change them
+	protected Restaurant copy() {
+		return new Restaurant(_name, _hours, _favorite, _latitude, _longitude, _type, _menu, _description, 
+				_icon, _mealMoneyAccepted, _mealPlanAccepted, _offCampus, _phoneNumber, _url);
+	}
 
 	public long create() 							{return DbWrapper.create(this);}
 	
+	// returns the natural key of the restaurant, its name in lower case letters and digits 
+	// with everything else turned into dashes (eg "suzie-s-cafe-blair"). This is how shipped 
+	// restaurants are matched up with the rows already in the database
+	public String getKey() {
+		if (_name == null)
+			return null;
+		StringBuilder key = new StringBuilder(_name.length());
+		for (int i = 0; i < _name.length(); i++) {
+			char c = Character.toLowerCase(_name.charAt(i));
+			if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9'))
+				key.append(c);
+			else if (key.length() > 0 && key.charAt(key.length() - 1) != '-')
+				key.append('-');
+		}
+		if (key.length() > 0 && key.charAt(key.length() - 1) == '-')
+			key.setLength(key.length() - 1);
+		return key.toString();
+	}
+	
+	// returns a 64 bit FNV-1a hash of everything that is shipped with the app, so not 
+	// the favorite setting or the date specific hours. Restaurants whose hash changes 
+	// are rewritten when the database is reseeded
+	public long contentHash() {
+		long hash = FNV_OFFSET;
+		hash = hash(hash, _name);
+		hash = hash(hash, _type);
+		hash = hash(hash, _description);
+		hash = hash(hash, _phoneNumber);
+		hash = hash(hash, _url);
+		hash = hash(hash, _icon);
+		hash = hash(hash, _latitude);
+		hash = hash(hash, _longitude);
+		hash = hash(hash, (_mealPlanAccepted ? 1 : 0) | (_mealMoneyAccepted ? 2 : 0) | (_offCampus ? 4 : 0));
+		int [] intervals = _hours == null ? new int[0] : _hours.getIntervals();
+		hash = hash(hash, intervals.length);
+		for (int i = 0; i < intervals.length; i++)
+			hash = hash(hash, intervals[i]);
+		return hash;
+	}
+	
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	
+	private static long hash(long hash, int value) {
+		for (int i = 0; i < 4; i++) {
+			hash = (hash ^ (value & 0xff)) * FNV_PRIME;
+			value >>>= 8;
+		}
+		return hash;
+	}
+	
+	// hashes the length (-1 for null) and then the characters, so neighbouring strings can't run together
+	private static long hash(long hash, String value) {
+		if (value == null)
+			return hash(hash, -1);
+		hash = hash(hash, value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+			hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+		}
+		return hash;
+	}
+	
 	public String toString() {
 		StringBuilder out = new StringBuilder();
 		if (favorite())
@@ -186,7 +273,8 @@ public class Restaurant {
 	}
 	
 	// static methods for database access
-	public static ArrayList<Long> getIDs() 					{return DbWrapper.getIDs();}
+	public static RestaurantTable getTable()				{return DbWrapper.getTable();}
+	public static List<Long> getIDs() 						{return DbWrapper.getIDs();}
 	public static ArrayList<Long> copyIDs()					{return DbWrapper.copyIDs();}
 	public static int getI(long rowID)						{return DbWrapper.getI(rowID);}
 	public static Restaurant get(long rowID) 				{return DbWrapper.get(rowID);}
@@ -204,17 +292,35 @@ public class Restaurant {
 	public static boolean offCampus(long rowID)				{return DbWrapper.offCampus(rowID);}
 	
 	public static boolean setFavorite(long rowID, boolean favorite) {return DbWrapper.setFavorite(rowID, favorite);}
+	public static boolean setName(long rowID, String name)	{return DbWrapper.setName(rowID, name);}
+	public static boolean setHours(long rowID, RestaurantHours hours) {return DbWrapper.setHours(rowID, hours);}
+	public static boolean setMenu(long rowID, RestaurantMenu menu) {return DbWrapper.setMenu(rowID, menu);}
+	public static boolean setDescription(long rowID, String desc) {return DbWrapper.setDescription(rowID, desc);}
+	public static boolean setType(long rowID, String type)	{return DbWrapper.setType(rowID, type);}
+	public static boolean setIcon(long rowID, int iconID)	{return DbWrapper.setIcon(rowID, iconID);}
+	public static boolean setLocation(long rowID, int lat, int lon) {return DbWrapper.setLocation(rowID, lat, lon);}
+	public static boolean setPlanAccepted(long rowID, boolean accepted) {return DbWrapper.setPlanAccepted(rowID, accepted);}
+	public static boolean setMoneyAccepted(long rowID, boolean accepted) {return DbWrapper.setMoneyAccepted(rowID, accepted);}
+	public static boolean setOffCampus(long rowID, boolean off) {return DbWrapper.setOffCampus(rowID, off);}
+	public static boolean setPhoneNumber(long rowID, String number) {return DbWrapper.setPhoneNumber(rowID, number);}
+	public static boolean setUrl(long rowID, String url)	{return DbWrapper.setUrl(rowID, url);}
+	public static boolean addOverride(long rowID, HoursOverride o)	{return DbWrapper.addOverride(rowID, o);}
+	public static boolean clearOverrides(long rowID)		{return DbWrapper.clearOverrides(rowID);}
 	
-	public static boolean commit() 							{return DbWrapper.commit();}
+	// returns the fields changed for each row id, see DbWrapper.commit()
+	public static HashMap<Long, Integer> commit() 			{return DbWrapper.commit();}
 	public static void revert()								{DbWrapper.revert();}
 	
 	public static long create(Restaurant r) 				{return DbWrapper.create(r);}
+	public static long[] createAll(ArrayList<Restaurant> rs){return DbWrapper.createAll(rs);}
+	public static boolean reseed(ArrayList<Restaurant> rs)	{return DbWrapper.reseed(rs);}
 	public static boolean update(long rowID, Restaurant r)	{return DbWrapper.update(rowID, r);}
 	public static boolean delete(long rowID)				{return DbWrapper.delete(rowID);}
 	public static boolean deleteAll()						{return DbWrapper.deleteAll();}
 	
-	// closes the underlying database. Use if no reads or writes are soon to be made (is called often
-	// in the underlying database modifying function call, so often unnecessary)
+	// the underlying database is opened by the first access and then kept open; close it when
+	// the application is going away, it is opened again if anything else needs it
+	public static void open()								{DbWrapper.open();}
 	public static void close()								{DbWrapper.close();}
 }
 
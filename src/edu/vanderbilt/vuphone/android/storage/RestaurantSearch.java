@@ -0,0 +1,163 @@
+package edu.vanderbilt.vuphone.android.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+
+import android.database.Cursor;
+import edu.vanderbilt.vuphone.android.objects.RestaurantMenu;
+
+/**
+ * Full text search over the restaurants, backed by the FTS3 table DbAdapter keeps of each
+ * restaurant's name, type, description and menu item names (DbAdapter.SEARCH_TABLE).
+ *
+ * The text typed is cut into words, each matched as a prefix of a word in the index, and a
+ * restaurant must match all of them: "caf ric" finds "Rand Cafe" if its menu has rice.
+ * Matches are ranked by where they were found, a name counting more than a type, a type
+ * more than a menu item and that more than the description, with a bonus for a name that
+ * starts with one of the words. FTS3 gives where each word matched (offsets()), the scores
+ * are worked out from that here, so a query is one indexed lookup and a pass over the rows
+ * found.
+ *
+ */
+public final class RestaurantSearch {
+
+	/** the weight of a match in each column of the search table, in column order */
+	private static final int [] WEIGHTS = {8, 4, 1, 2};
+	private static final int NAME_START_BONUS = 8;
+
+	/** a restaurant found by a search, and how well it matched */
+	public static final class Result {
+		private final long _rowID;
+		private final int _score;
+
+		private Result(long rowID, int score) {
+			_rowID = rowID;
+			_score = score;
+		}
+
+		public long getRowID()		{return _rowID;}
+		public int getScore()		{return _score;}
+	}
+
+	private static final Comparator<Result> BEST_FIRST = new Comparator<Result>() {
+		public int compare(Result a, Result b) {
+			if (a._score != b._score)
+				return a._score > b._score ? -1 : 1;
+			return a._rowID < b._rowID ? -1 : (a._rowID == b._rowID ? 0 : 1);
+		}
+	};
+
+	private RestaurantSearch() {}
+
+	/**
+	 * Searches the restaurants for the words of a text, each as a prefix
+	 * @param text
+	 * 	what the user typed
+	 * @param limit
+	 * 	the most results to return
+	 * @return the restaurants matching every word, best first; none if the text has no words
+	 */
+	public static ArrayList<Result> search(String text, int limit) {
+		return DbWrapper.search(text, limit);
+	}
+
+	/**
+	 * Builds the FTS3 MATCH expression for a text: each run of letters and digits as a
+	 * prefix term, lowercased as the FTS3 simple tokenizer does (ASCII letters only). Everything else is dropped, so nothing typed can
+	 * reach the query syntax
+	 * @return the expression, null if the text has no words
+	 */
+	protected static String toMatch(String text) {
+		if (text == null)
+			return null;
+		StringBuilder match = new StringBuilder(text.length() + 8);
+		int length = text.length();
+		for (int i = 0; i < length; ) {
+			while (i < length && !Character.isLetterOrDigit(text.charAt(i)))
+				i++;
+			int start = i;
+			while (i < length && Character.isLetterOrDigit(text.charAt(i)))
+				i++;
+			if (i > start) {
+				if (match.length() > 0)
+					match.append(' ');
+				for (int j = start; j < i; j++) {
+					char ch = text.charAt(j);
+					match.append(ch >= 'A' && ch <= 'Z' ? (char)(ch + ('a' - 'A')) : ch);
+				}
+				match.append('*');
+			}
+		}
+		return match.length() == 0 ? null : match.toString();
+	}
+
+	/**
+	 * Scores the rows of a search cursor and returns the best
+	 * @param c
+	 * 	cursor from DbAdapter.getSearchCursor(), the docid and then offsets() of each match
+	 * @param limit
+	 * 	the most results to return
+	 * @return the results, best first
+	 */
+	protected static ArrayList<Result> rank(Cursor c, int limit) {
+		Result [] results = new Result[c.getCount()];
+		int n = 0;
+		while (c.moveToNext())
+			results[n++] = new Result(c.getLong(0), score(c.getString(1)));
+		Arrays.sort(results, 0, n, BEST_FIRST);
+		ArrayList<Result> out = new ArrayList<Result>(Math.min(n, limit));
+		for (int i = 0; i < n && i < limit; i++)
+			out.add(results[i]);
+		return out;
+	}
+
+	// scores the matches listed by offsets(): groups of four numbers, the column, the
+	// term, and the byte offset and size of the match
+	private static int score(String offsets) {
+		int score = 0;
+		int [] group = new int[4];
+		int field = 0;
+		int value = 0;
+		boolean inNumber = false;
+		for (int i = 0, length = offsets.length(); i <= length; i++) {
+			char ch = i < length ? offsets.charAt(i) : ' ';
+			if (ch >= '0' && ch <= '9') {
+				value = value * 10 + (ch - '0');
+				inNumber = true;
+				continue;
+			}
+			if (!inNumber)
+				continue;
+			group[field++] = value;
+			value = 0;
+			inNumber = false;
+			if (field == 4) {
+				int column = group[0];
+				if (column >= 0 && column < WEIGHTS.length)
+					score += WEIGHTS[column];
+				if (column == 0 && group[2] == 0)
+					score += NAME_START_BONUS;
+				field = 0;
+			}
+		}
+		return score;
+	}
+
+	// the text indexed for a menu: the names of its items
+	protected static String menuText(RestaurantMenu menu) {
+		if (menu == null)
+			return null;
+		StringBuilder text = new StringBuilder(menu.size() * 16);
+		for (Iterator<RestaurantMenu.MenuItem> items = menu.iterator(); items.hasNext(); ) {
+			String name = items.next().getName();
+			if (name == null)
+				continue;
+			if (text.length() > 0)
+				text.append('\n');
+			text.append(name);
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,210 @@
+package edu.vanderbilt.vuphone.android.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import android.content.Context;
+import edu.vanderbilt.vuphone.android.dining.R;
+import edu.vanderbilt.vuphone.android.objects.RestaurantHours;
+
+/**
+ * Reads the restaurant data shipped with the app, the asset written by SnapshotWriter (in
+ * tools/src, a build step kept out of the package) from StaticRestaurantData. The asset is
+ * read into memory whole, a few kilobytes, and every field is read from there when asked
+ * for, so opening it costs nothing per restaurant. It is not memory mapped: aapt compresses
+ * assets of an unknown extension, and AssetManager can only hand out a descriptor to map
+ * for one stored uncompressed.
+ *
+ * The snapshot only seeds the database (DbWrapper.reseed()), the app reads the restaurants
+ * from there rather than from the snapshot, for two reasons. Mapping it would need it stored
+ * uncompressed, and for a few kilobytes read once a launch reading it whole costs no more.
+ * And the shipped fields are not read only: the typed setters of Restaurant change any of
+ * them, and date specific hours are added to the hours, all in the database, and the search
+ * index and the reseed diff are built on those rows. Serving the shipped fields from the
+ * snapshot would mean two sources for each of them, and a way to tell which one is current.
+ *
+ * Layout (big endian):
+ * 	header		int MAGIC, short VERSION, short RECORD_SIZE, int count, int pool offset,
+ * 				long data hash (64 bit FNV-1a of everything after the header)
+ * 	records		count fixed width records, see the RECORD_ offsets below
+ * 	pool		the strings (UTF-8) and hours (RestaurantHours.encode()) the records point
+ * 				to, each a short length followed by the bytes; equal values are stored once
+ *
+ * Icons are stored by their drawable name and looked up in the resources when read, as the
+ * resource ids change from build to build.
+ *
+ */
+public class RestaurantSnapshot {
+
+	/** name of the asset */
+	public static final String ASSET = "restaurants.snapshot";
+
+	protected static final int MAGIC = 0x56554453; // "VUDS"
+	protected static final short VERSION = 2;
+	protected static final int HEADER_SIZE = 24;
+
+	/** offsets of the fields in a record, strings and hours are offsets into the pool, -1 if null */
+	protected static final int RECORD_NAME 			= 0;
+	protected static final int RECORD_TYPE 			= 4;
+	protected static final int RECORD_DESCRIPTION 	= 8;
+	protected static final int RECORD_PHONE_NUMBER 	= 12;
+	protected static final int RECORD_URL 			= 16;
+	protected static final int RECORD_ICON 			= 20;
+	protected static final int RECORD_HOURS 		= 24;
+	protected static final int RECORD_LATITUDE 		= 28;
+	protected static final int RECORD_LONGITUDE 	= 32;
+	protected static final int RECORD_BOOLEANS 		= 36; // as DbAdapter.booleansEncode()
+	protected static final int RECORD_SIZE 			= 40;
+
+	private final ByteBuffer _data;
+	private final int _count;
+	private final int _pool;
+	private final long _dataHash;
+
+	/**
+	 * @param data
+	 * 	the whole snapshot, from position 0
+	 */
+	protected RestaurantSnapshot(ByteBuffer data) {
+		_data = data;
+		if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC)
+			throw new RuntimeException("Not a restaurant snapshot");
+		if (data.getShort(4) != VERSION || data.getShort(6) != RECORD_SIZE)
+			throw new RuntimeException("Unknown restaurant snapshot version " + data.getShort(4));
+		_count = data.getInt(8);
+		_pool = data.getInt(12);
+		_dataHash = data.getLong(16);
+		if (_count < 0 || _pool != HEADER_SIZE + _count * RECORD_SIZE || _pool > data.capacity())
+			throw new RuntimeException("Restaurant snapshot is truncated");
+	}
+
+	/**
+	 * Opens the snapshot in the application's assets
+	 * @param context
+	 * 	any context of the application
+	 * @return the snapshot, or null if the application has none
+	 */
+	public static RestaurantSnapshot open(Context context) {
+		try {
+			return new RestaurantSnapshot(read(context));
+		} catch (FileNotFoundException e) {
+			return null;
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to read " + ASSET + ": " + e.getMessage());
+		}
+	}
+
+	// reads the whole asset into memory, throws FileNotFoundException if there is none
+	private static ByteBuffer read(Context context) throws IOException {
+		InputStream in = context.getAssets().open(ASSET);
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+			byte [] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) > 0)
+				out.write(buffer, 0, read);
+			return ByteBuffer.wrap(out.toByteArray());
+		} finally {
+			in.close();
+		}
+	}
+
+	// returns the number of restaurants
+	public int size() {
+		return _count;
+	}
+
+	// returns the hash of the data, worked out by SnapshotWriter when the snapshot was written
+	public long getDataHash() {
+		return _dataHash;
+	}
+
+	/**
+	 * Returns the hash to seed the database under, see DbWrapper.reseed(Context): the hash
+	 * of the data, mixed with when the package was installed. The icons go in the database
+	 * as resource ids, which can change with any build, so a new install is reseeded even
+	 * if the data is the same
+	 * @param context
+	 * 	any context of the application
+	 * @return the hash, never 0
+	 */
+	public long getSeedHash(Context context) {
+		long installed = new File(context.getPackageCodePath()).lastModified();
+		long hash = _dataHash * 31 + installed;
+		return hash == 0 ? 1 : hash; // 0 is stored for nothing seeded
+	}
+
+	public String getName(int i)			{return getString(i, RECORD_NAME);}
+	public String getType(int i)			{return getString(i, RECORD_TYPE);}
+	public String getDescription(int i)		{return getString(i, RECORD_DESCRIPTION);}
+	public String getPhoneNumber(int i)		{return getString(i, RECORD_PHONE_NUMBER);}
+	public String getUrl(int i)				{return getString(i, RECORD_URL);}
+	public String getIconName(int i)		{return getString(i, RECORD_ICON);}
+	public int getLat(int i)				{return _data.getInt(record(i) + RECORD_LATITUDE);}
+	public int getLon(int i)				{return _data.getInt(record(i) + RECORD_LONGITUDE);}
+
+	public RestaurantHours getHours(int i) {
+		return RestaurantHours.decode(getBytes(_data.getInt(record(i) + RECORD_HOURS)));
+	}
+
+	// returns favorite, meal plan accepted, meal money accepted and off campus, in that order
+	public boolean [] getBooleans(int i) {
+		return DbAdapter.booleansDecode(_data.getInt(record(i) + RECORD_BOOLEANS));
+	}
+
+	// returns the drawable id of the restaurant's icon, the default icon if it is not in the resources
+	public int getIcon(int i, Context context) {
+		String name = getIconName(i);
+		int id = name == null ? 0 : context.getResources().getIdentifier(name, "drawable", context.getPackageName());
+		return id == 0 ? R.drawable.dining_icon : id;
+	}
+
+	// builds the restaurant with the given index
+	public Restaurant get(int i, Context context) {
+		boolean [] booleans = getBooleans(i);
+		return new Restaurant(getName(i), getHours(i), booleans[0], getLat(i), getLon(i), getType(i),
+				null, getDescription(i), getIcon(i, context), booleans[2], booleans[1], booleans[3],
+				getPhoneNumber(i), getUrl(i));
+	}
+
+	// builds every restaurant, in snapshot order
+	public ArrayList<Restaurant> getAll(Context context) {
+		ArrayList<Restaurant> out = new ArrayList<Restaurant>(_count);
+		for (int i = 0; i < _count; i++)
+			out.add(get(i, context));
+		return out;
+	}
+
+	private int record(int i) {
+		if (i < 0 || i >= _count)
+			throw new RuntimeException("No restaurant " + i + " in the snapshot");
+		return HEADER_SIZE + i * RECORD_SIZE;
+	}
+
+	private String getString(int i, int field) {
+		int offset = _data.getInt(record(i) + field);
+		if (offset < 0)
+			return null;
+		try {
+			return new String(getBytes(offset), "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new RuntimeException("UTF-8 not supported");
+		}
+	}
+
+	// returns a copy of the pool entry at the offset
+	private byte [] getBytes(int offset) {
+		int position = _pool + offset;
+		byte [] out = new byte[_data.getShort(position) & 0xffff];
+		ByteBuffer entry = _data.duplicate();
+		entry.position(position + 2);
+		entry.get(out);
+		return out;
+	}
+}
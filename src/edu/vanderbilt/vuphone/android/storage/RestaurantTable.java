@@ -0,0 +1,184 @@
+package edu.vanderbilt.vuphone.android.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One version of the restaurant cache: the row ids in ascending order, the restaurant at
+ * each id's index, and which of them have all their data read. A table never changes once
+ * DbWrapper publishes it. A change builds the next version with the with methods below and
+ * swaps it in, so a reader on any thread that holds a table keeps a consistent view of
+ * every restaurant for as long as it holds it, without locking.
+ *
+ * The Restaurants are shared with the versions built from the table and must not be
+ * modified; one that changes is copied (Restaurant.copy()) and the copy goes in the next
+ * version. Ids are kept as primitives, looked up through an IdIndex, and the complete
+ * flags in a BitSet, so reading a field of a restaurant allocates nothing. What a
+ * restaurant builds lazily is built (Restaurant.settle()) as it goes in a table, so readers
+ * on other threads only ever read it.
+ *
+ */
+public final class RestaurantTable {
+
+	/** the table before anything is read from the database */
+	protected static final RestaurantTable EMPTY = new RestaurantTable(0, new long[0],
+			new Restaurant[0], new BitSet(0), false, false);
+
+	private final long _version;
+	private final long [] _ids;
+	private final IdIndex _index;
+	private final Restaurant [] _restaurants;
+	private final BitSet _complete;
+	private final boolean _mainData;
+	private final boolean _mapData;
+
+	// _ids boxed for getIDs(), made when first asked for
+	private volatile List<Long> _idList;
+
+	/**
+	 * @param ids
+	 * 	the row ids, ascending, not to be changed after
+	 * @param restaurants
+	 * 	the restaurant at each index of ids, not to be changed after
+	 * @param complete
+	 * 	set at the index of each restaurant whose data is all read, not to be changed after
+	 */
+	protected RestaurantTable(long version, long [] ids, Restaurant [] restaurants,
+			BitSet complete, boolean mainData, boolean mapData) {
+		this(version, ids, new IdIndex(ids), restaurants, complete, mainData, mapData);
+		for (int i = 0; i < restaurants.length; i++)
+			restaurants[i].settle();
+	}
+
+	private RestaurantTable(long version, long [] ids, IdIndex index, Restaurant [] restaurants,
+			BitSet complete, boolean mainData, boolean mapData) {
+		_version = version;
+		_ids = ids;
+		_index = index;
+		_restaurants = restaurants;
+		_complete = complete;
+		_mainData = mainData;
+		_mapData = mapData;
+	}
+
+	// returns the version, which goes up by one with each table built from the last
+	public long getVersion()			{return _version;}
+	public int size()					{return _restaurants.length;}
+	// true once the ids and the main data of every restaurant are in the table
+	public boolean hasMainData()		{return _mainData;}
+	// true once the map data of every restaurant is in the table as well
+	public boolean hasMapData()			{return _mapData;}
+	public long getID(int i)			{return _ids[i];}
+	public Restaurant get(int i)		{return _restaurants[i];}
+	public boolean isComplete(int i)	{return _complete.get(i);}
+
+	// returns the row ids, ascending. The list is shared, and read only
+	public List<Long> getIDs() {
+		List<Long> list = _idList;
+		if (list == null) {
+			ArrayList<Long> ids = new ArrayList<Long>(_ids.length);
+			for (int i = 0; i < _ids.length; i++)
+				ids.add(_ids[i]);
+			list = Collections.unmodifiableList(ids);
+			_idList = list;
+		}
+		return list;
+	}
+
+	// returns the index of the restaurant with the row id, negative if there is none
+	public int indexOf(long rowID) {
+		return _index.indexOf(rowID);
+	}
+
+	// returns the next version, with r at index i
+	protected RestaurantTable withRestaurant(int i, Restaurant r, boolean complete) {
+		Restaurant [] restaurants = _restaurants.clone();
+		r.settle();
+		restaurants[i] = r;
+		BitSet completed = _complete;
+		if (completed.get(i) != complete) {
+			completed = (BitSet)completed.clone();
+			completed.set(i, complete);
+		}
+		return new RestaurantTable(_version + 1, _ids, _index, restaurants, completed,
+				_mainData, _mapData);
+	}
+
+	// returns the next version, with restaurants[j] at indexes[j] and their complete flags set
+	protected RestaurantTable withReplaced(int [] indexes, Restaurant [] restaurants, boolean complete) {
+		Restaurant [] replaced = _restaurants.clone();
+		BitSet completed = (BitSet)_complete.clone();
+		for (int j = 0; j < indexes.length; j++) {
+			restaurants[j].settle();
+			replaced[indexes[j]] = restaurants[j];
+			completed.set(indexes[j], complete);
+		}
+		return new RestaurantTable(_version + 1, _ids, _index, replaced, completed,
+				_mainData, _mapData);
+	}
+
+	// returns the next version, with every restaurant replaced
+	protected RestaurantTable withRestaurants(Restaurant [] restaurants, boolean mapData) {
+		if (restaurants.length != _restaurants.length)
+			throw new RuntimeException("withRestaurants(): " + restaurants.length
+					+ " restaurants for " + _restaurants.length + " ids");
+		for (int i = 0; i < restaurants.length; i++)
+			restaurants[i].settle();
+		return new RestaurantTable(_version + 1, _ids, _index, restaurants, _complete,
+				_mainData, mapData);
+	}
+
+	// returns the next version, with r added under the row id
+	protected RestaurantTable withAdded(long rowID, Restaurant r, boolean complete) {
+		int i = Arrays.binarySearch(_ids, rowID);
+		if (i >= 0)
+			throw new RuntimeException("Restaurant with id " + rowID + " is already in the table");
+		i = -i - 1;
+		int size = _restaurants.length;
+		long [] ids = new long[size + 1];
+		Restaurant [] restaurants = new Restaurant[size + 1];
+		System.arraycopy(_ids, 0, ids, 0, i);
+		System.arraycopy(_ids, i, ids, i + 1, size - i);
+		System.arraycopy(_restaurants, 0, restaurants, 0, i);
+		System.arraycopy(_restaurants, i, restaurants, i + 1, size - i);
+		ids[i] = rowID;
+		restaurants[i] = r;
+		BitSet completed = shifted(i, 1);
+		completed.set(i, complete);
+		return new RestaurantTable(_version + 1, ids, restaurants, completed, _mainData, _mapData);
+	}
+
+	// returns the next version, without the restaurant at index i
+	protected RestaurantTable withRemoved(int i) {
+		int size = _restaurants.length;
+		long [] ids = new long[size - 1];
+		Restaurant [] restaurants = new Restaurant[size - 1];
+		System.arraycopy(_ids, 0, ids, 0, i);
+		System.arraycopy(_ids, i + 1, ids, i, size - i - 1);
+		System.arraycopy(_restaurants, 0, restaurants, 0, i);
+		System.arraycopy(_restaurants, i + 1, restaurants, i, size - i - 1);
+		return new RestaurantTable(_version + 1, ids, restaurants, shifted(i, -1),
+				_mainData, _mapData);
+	}
+
+	// returns a copy of the complete flags with an index inserted (offset 1) or removed 
+	// (offset -1) at index at, the flags after it moved to match
+	private BitSet shifted(int at, int offset) {
+		BitSet out = new BitSet(_restaurants.length + offset);
+		for (int i = _complete.nextSetBit(0); i >= 0; i = _complete.nextSetBit(i + 1))
+			if (i < at)
+				out.set(i);
+			else if (offset > 0 || i > at)
+				out.set(i + offset);
+		return out;
+	}
+
+	// returns the next version, empty, to be read again from the database
+	protected RestaurantTable cleared() {
+		return new RestaurantTable(_version + 1, EMPTY._ids, EMPTY._index, EMPTY._restaurants,
+				EMPTY._complete, false, false);
+	}
+}
@@ -0,0 +1,137 @@
+package edu.vanderbilt.vuphone.android.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import edu.vanderbilt.vuphone.android.dining.R;
+
+/**
+ * Build step writing the restaurant snapshot asset (see RestaurantSnapshot) from
+ * StaticRestaurantData. It lives in tools/src, outside the app's source folders, so it is
+ * not packaged. Run it on a desktop JVM after changing the static data or the snapshot
+ * format, with the compiled app classes and android.jar on the class path:
+ *
+ * javac -cp bin/classes:android.jar -d bin/tools tools/src/edu/vanderbilt/vuphone/android/storage/SnapshotWriter.java
+ * java -cp bin/tools:bin/classes:android.jar edu.vanderbilt.vuphone.android.storage.SnapshotWriter assets/restaurants.snapshot
+ *
+ */
+public class SnapshotWriter {
+
+	private final ArrayList<Restaurant> _restaurants;
+	// drawable names by id, to store icons by name
+	private final HashMap<Integer, String> _icons = new HashMap<Integer, String>();
+
+	private final ByteArrayOutputStream _pool = new ByteArrayOutputStream(16384);
+	// offsets of the values already in the pool, so each is stored once
+	private final HashMap<String, Integer> _strings = new HashMap<String, Integer>();
+	private final HashMap<String, Integer> _blobs = new HashMap<String, Integer>();
+
+	public SnapshotWriter(ArrayList<Restaurant> restaurants) {
+		_restaurants = restaurants;
+		Field [] drawables = R.drawable.class.getFields();
+		for (int i = 0; i < drawables.length; i++) {
+			try {
+				_icons.put(drawables[i].getInt(null), drawables[i].getName());
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException("Unable to read R.drawable." + drawables[i].getName());
+			}
+		}
+	}
+
+	public static void main(String [] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("usage: SnapshotWriter <output file>");
+			System.exit(1);
+		}
+		byte [] snapshot = new SnapshotWriter(new StaticRestaurantData().buildAll()).write();
+		FileOutputStream out = new FileOutputStream(args[0]);
+		try {
+			out.write(snapshot);
+		} finally {
+			out.close();
+		}
+		System.out.println(args[0] + ": " + snapshot.length + " bytes");
+	}
+
+	// returns the snapshot of the restaurants
+	public byte [] write() throws IOException {
+		int count = _restaurants.size();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(RestaurantSnapshot.HEADER_SIZE
+				+ count * RestaurantSnapshot.RECORD_SIZE + 16384);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(RestaurantSnapshot.MAGIC);
+		out.writeShort(RestaurantSnapshot.VERSION);
+		out.writeShort(RestaurantSnapshot.RECORD_SIZE);
+		out.writeInt(count);
+		out.writeInt(RestaurantSnapshot.HEADER_SIZE + count * RestaurantSnapshot.RECORD_SIZE);
+		out.writeLong(0); // the data hash, filled in once the data is written
+
+		// in the order of the RECORD_ offsets
+		for (int i = 0; i < count; i++) {
+			Restaurant r = _restaurants.get(i);
+			out.writeInt(string(r.getName()));
+			out.writeInt(string(r.getType()));
+			out.writeInt(string(r.getDescription()));
+			out.writeInt(string(r.getPhoneNumber()));
+			out.writeInt(string(r.getUrl()));
+			out.writeInt(string(iconName(r)));
+			out.writeInt(blob(r.getHours().encode()));
+			out.writeInt(r.getLat());
+			out.writeInt(r.getLon());
+			out.writeInt(DbAdapter.booleansEncode(new boolean []
+			         {r.favorite(), r.mealPlanAccepted(), r.mealMoneyAccepted(), r.offCampus()}));
+		}
+		_pool.writeTo(out);
+		out.flush();
+		byte [] snapshot = bytes.toByteArray();
+		long hash = hash(snapshot, RestaurantSnapshot.HEADER_SIZE);
+		for (int i = 0; i < 8; i++)
+			snapshot[16 + i] = (byte)(hash >>> (56 - i * 8));
+		return snapshot;
+	}
+
+	// returns the 64 bit FNV-1a hash of the bytes from the offset on
+	private static long hash(byte [] bytes, int offset) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = offset; i < bytes.length; i++)
+			hash = (hash ^ (bytes[i] & 0xff)) * 0x100000001b3L;
+		return hash;
+	}
+
+	private String iconName(Restaurant r) {
+		String name = _icons.get(r.getIcon());
+		if (name == null)
+			throw new RuntimeException(r.getName() + ": icon " + r.getIcon() + " is not a drawable");
+		return name;
+	}
+
+	// returns the pool offset of the string, -1 for null
+	private int string(String s) throws IOException {
+		if (s == null)
+			return -1;
+		return add(_strings, s, s.getBytes("UTF-8"));
+	}
+
+	private int blob(byte [] b) throws IOException {
+		return add(_blobs, new String(b, "ISO-8859-1"), b);
+	}
+
+	private int add(HashMap<String, Integer> added, String key, byte [] value) {
+		Integer offset = added.get(key);
+		if (offset != null)
+			return offset;
+		if (value.length > 0xffff)
+			throw new RuntimeException("Value too long for the snapshot: " + value.length + " bytes");
+		offset = _pool.size();
+		_pool.write(value.length >> 8);
+		_pool.write(value.length);
+		_pool.write(value, 0, value.length);
+		added.put(key, offset);
+		return offset;
+	}
+}